@@ -0,0 +1,91 @@
+package com.ecore.roles.client;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Runs one asynchronous lookup per distinct key while keeping at most {@code parallelism} of them
+ * in flight. A new lookup starts as soon as a previous one finishes, so one slow key does not hold
+ * back the rest of the batch. Lookups that complete immediately (cache hits) do not use up a slot.
+ */
+public final class BoundedFanOut {
+
+    private BoundedFanOut() {}
+
+    public static <K, V> Map<K, CompletableFuture<V>> fetchAll(
+            Collection<K> keys,
+            Function<K, CompletableFuture<V>> fetch,
+            int parallelism) {
+        return fetchAll(keys, fetch, parallelism, null);
+    }
+
+    /**
+     * Returns one future per distinct key, in encounter order. With a {@code deadline}, every lookup
+     * still pending or queued when it passes fails with a {@link java.util.concurrent.TimeoutException}
+     * and queued keys are never sent.
+     */
+    public static <K, V> Map<K, CompletableFuture<V>> fetchAll(
+            Collection<K> keys,
+            Function<K, CompletableFuture<V>> fetch,
+            int parallelism,
+            Duration deadline) {
+        Map<K, CompletableFuture<V>> results = new LinkedHashMap<>();
+        for (K key : keys) {
+            results.computeIfAbsent(key, ignored -> deadline == null
+                    ? new CompletableFuture<>()
+                    : new CompletableFuture<V>().orTimeout(deadline.toMillis(), TimeUnit.MILLISECONDS));
+        }
+
+        Queue<Map.Entry<K, CompletableFuture<V>>> queue = new ConcurrentLinkedQueue<>(results.entrySet());
+        for (int i = 0; i < Math.max(1, parallelism); i++) {
+            drain(queue, fetch);
+        }
+        return Collections.unmodifiableMap(results);
+    }
+
+    private static <K, V> void drain(
+            Queue<Map.Entry<K, CompletableFuture<V>>> queue,
+            Function<K, CompletableFuture<V>> fetch) {
+        Map.Entry<K, CompletableFuture<V>> next;
+        while ((next = queue.poll()) != null) {
+            CompletableFuture<V> result = next.getValue();
+            if (result.isDone()) {
+                continue;
+            }
+            CompletableFuture<V> call = start(fetch, next.getKey());
+            if (call.isDone()) {
+                call.whenComplete((value, error) -> complete(result, value, error));
+                continue;
+            }
+            call.whenComplete((value, error) -> {
+                complete(result, value, error);
+                drain(queue, fetch);
+            });
+            return;
+        }
+    }
+
+    private static <K, V> CompletableFuture<V> start(Function<K, CompletableFuture<V>> fetch, K key) {
+        try {
+            return fetch.apply(key);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static <V> void complete(CompletableFuture<V> result, V value, Throwable error) {
+        if (error != null) {
+            result.completeExceptionally(error);
+        } else {
+            result.complete(value);
+        }
+    }
+}
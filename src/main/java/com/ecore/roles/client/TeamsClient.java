@@ -2,36 +2,76 @@ package com.ecore.roles.client;
 
 import com.ecore.roles.client.model.Team;
 import com.ecore.roles.configuration.ClientsConfigurationProperties;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
-@RequiredArgsConstructor
 @Component
 public class TeamsClient {
 
+    private static final String ALL = "all";
+
     private final RestTemplate restTemplate;
     private final ClientsConfigurationProperties clientsConfigurationProperties;
+    private final WebClient webClient;
+    private final UpstreamGuard upstreamGuard;
+    private final SingleFlight<UUID, ResponseEntity<Team>> teamFlight;
+    private final SingleFlight<String, ResponseEntity<List<Team>>> teamsFlight;
+
+    @Autowired
+    public TeamsClient(
+            RestTemplate restTemplate,
+            ClientsConfigurationProperties clientsConfigurationProperties,
+            @Qualifier("teamsWebClient") WebClient webClient,
+            @Qualifier("teamsUpstreamGuard") UpstreamGuard upstreamGuard,
+            MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.clientsConfigurationProperties = clientsConfigurationProperties;
+        this.webClient = webClient;
+        this.upstreamGuard = upstreamGuard;
+        this.teamFlight = new SingleFlight<>(meterRegistry, "teams", "getTeam");
+        this.teamsFlight = new SingleFlight<>(meterRegistry, "teams", "getTeams");
+    }
 
     public ResponseEntity<Team> getTeam(UUID id) {
-        return restTemplate.exchange(
-                clientsConfigurationProperties.getTeamsApiHost() + "/" + id,
+        return teamFlight.execute(id, () -> upstreamGuard.call(() -> restTemplate.exchange(
+                clientsConfigurationProperties.getTeamsApiHost() + "/{id}",
                 HttpMethod.GET,
                 null,
-                Team.class);
+                Team.class,
+                id)));
     }
 
     public ResponseEntity<List<Team>> getTeams() {
-        return restTemplate.exchange(
+        return teamsFlight.execute(ALL, () -> upstreamGuard.call(() -> restTemplate.exchange(
                 clientsConfigurationProperties.getTeamsApiHost(),
                 HttpMethod.GET,
                 null,
-                new ParameterizedTypeReference<>() {});
+                new ParameterizedTypeReference<List<Team>>() {})));
+    }
+
+    public CompletableFuture<ResponseEntity<Team>> getTeamAsync(UUID id) {
+        return teamFlight.executeAsync(id, () -> upstreamGuard.callAsync(() -> webClient.get()
+                .uri("/{id}", id)
+                .retrieve()
+                .toEntity(Team.class)
+                .toFuture()));
+    }
+
+    public CompletableFuture<ResponseEntity<List<Team>>> getTeamsAsync() {
+        return teamsFlight.executeAsync(ALL, () -> upstreamGuard.callAsync(() -> webClient.get()
+                .retrieve()
+                .toEntityList(Team.class)
+                .toFuture()));
     }
 }
@@ -0,0 +1,66 @@
+package com.ecore.roles.client;
+
+import com.ecore.roles.exception.UpstreamUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import lombok.Getter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * Isolates calls to one upstream. A bulkhead caps the calls in progress, so a slow upstream holds
+ * at most that many request threads, and a circuit breaker stops calling it once too many calls
+ * fail or run slow. Calls refused by either fail at once with {@link UpstreamUnavailableException}.
+ */
+@Getter
+public class UpstreamGuard {
+
+    private final String upstream;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public UpstreamGuard(String upstream, CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        this.upstream = upstream;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+    }
+
+    public <T> T call(Supplier<T> call) {
+        try {
+            return CircuitBreaker.decorateSupplier(circuitBreaker, Bulkhead.decorateSupplier(bulkhead, call))
+                    .get();
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            throw new UpstreamUnavailableException(upstream, e);
+        }
+    }
+
+    public <T> CompletableFuture<T> callAsync(Supplier<CompletionStage<T>> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        CircuitBreaker
+                .decorateCompletionStage(circuitBreaker, Bulkhead.decorateCompletionStage(bulkhead, call))
+                .get()
+                .whenComplete((value, error) -> {
+                    if (error == null) {
+                        result.complete(value);
+                    } else {
+                        result.completeExceptionally(translate(error));
+                    }
+                });
+        return result;
+    }
+
+    private Throwable translate(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+        if (cause instanceof CallNotPermittedException || cause instanceof BulkheadFullException) {
+            return new UpstreamUnavailableException(upstream, cause);
+        }
+        return cause;
+    }
+}
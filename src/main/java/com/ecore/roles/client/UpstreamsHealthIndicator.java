@@ -0,0 +1,46 @@
+package com.ecore.roles.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reports the circuit breaker and bulkhead state of every upstream under {@code /actuator/health}.
+ * <p>
+ * The indicator stays UP while a circuit is open: the roles endpoints keep working without the
+ * upstreams, so an open circuit must not get the instance taken out of rotation.
+ */
+@Component
+public class UpstreamsHealthIndicator extends AbstractHealthIndicator {
+
+    private final List<UpstreamGuard> upstreamGuards;
+
+    @Autowired
+    public UpstreamsHealthIndicator(List<UpstreamGuard> upstreamGuards) {
+        this.upstreamGuards = upstreamGuards;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        builder.up();
+        for (UpstreamGuard guard : upstreamGuards) {
+            CircuitBreaker.Metrics circuitBreaker = guard.getCircuitBreaker().getMetrics();
+            Bulkhead.Metrics bulkhead = guard.getBulkhead().getMetrics();
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("circuitBreaker", guard.getCircuitBreaker().getState());
+            details.put("failureRate", circuitBreaker.getFailureRate());
+            details.put("slowCallRate", circuitBreaker.getSlowCallRate());
+            details.put("notPermittedCalls", circuitBreaker.getNumberOfNotPermittedCalls());
+            details.put("availableConcurrentCalls", bulkhead.getAvailableConcurrentCalls());
+            details.put("maxAllowedConcurrentCalls", bulkhead.getMaxAllowedConcurrentCalls());
+            builder.withDetail(guard.getUpstream(), details);
+        }
+    }
+}
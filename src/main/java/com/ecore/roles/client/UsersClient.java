@@ -2,36 +2,76 @@ package com.ecore.roles.client;
 
 import com.ecore.roles.client.model.User;
 import com.ecore.roles.configuration.ClientsConfigurationProperties;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
-@RequiredArgsConstructor
 @Component
 public class UsersClient {
 
+    private static final String ALL = "all";
+
     private final RestTemplate restTemplate;
     private final ClientsConfigurationProperties clientsConfigurationProperties;
+    private final WebClient webClient;
+    private final UpstreamGuard upstreamGuard;
+    private final SingleFlight<UUID, ResponseEntity<User>> userFlight;
+    private final SingleFlight<String, ResponseEntity<List<User>>> usersFlight;
+
+    @Autowired
+    public UsersClient(
+            RestTemplate restTemplate,
+            ClientsConfigurationProperties clientsConfigurationProperties,
+            @Qualifier("usersWebClient") WebClient webClient,
+            @Qualifier("usersUpstreamGuard") UpstreamGuard upstreamGuard,
+            MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.clientsConfigurationProperties = clientsConfigurationProperties;
+        this.webClient = webClient;
+        this.upstreamGuard = upstreamGuard;
+        this.userFlight = new SingleFlight<>(meterRegistry, "users", "getUser");
+        this.usersFlight = new SingleFlight<>(meterRegistry, "users", "getUsers");
+    }
 
     public ResponseEntity<User> getUser(UUID id) {
-        return restTemplate.exchange(
-                clientsConfigurationProperties.getUsersApiHost() + "/" + id,
+        return userFlight.execute(id, () -> upstreamGuard.call(() -> restTemplate.exchange(
+                clientsConfigurationProperties.getUsersApiHost() + "/{id}",
                 HttpMethod.GET,
                 null,
-                User.class);
+                User.class,
+                id)));
     }
 
     public ResponseEntity<List<User>> getUsers() {
-        return restTemplate.exchange(
+        return usersFlight.execute(ALL, () -> upstreamGuard.call(() -> restTemplate.exchange(
                 clientsConfigurationProperties.getUsersApiHost(),
                 HttpMethod.GET,
                 null,
-                new ParameterizedTypeReference<>() {});
+                new ParameterizedTypeReference<List<User>>() {})));
+    }
+
+    public CompletableFuture<ResponseEntity<User>> getUserAsync(UUID id) {
+        return userFlight.executeAsync(id, () -> upstreamGuard.callAsync(() -> webClient.get()
+                .uri("/{id}", id)
+                .retrieve()
+                .toEntity(User.class)
+                .toFuture()));
+    }
+
+    public CompletableFuture<ResponseEntity<List<User>>> getUsersAsync() {
+        return usersFlight.executeAsync(ALL, () -> upstreamGuard.callAsync(() -> webClient.get()
+                .retrieve()
+                .toEntityList(User.class)
+                .toFuture()));
     }
 }
@@ -0,0 +1,23 @@
+package com.ecore.roles.client.cache;
+
+import com.ecore.roles.client.model.Team;
+import com.ecore.roles.client.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Users and teams held in the upstream caches at {@code savedAt}.
+ */
+@AllArgsConstructor
+@Getter
+public class CacheSnapshot {
+
+    private final Instant savedAt;
+
+    private final List<User> users;
+
+    private final List<Team> teams;
+}
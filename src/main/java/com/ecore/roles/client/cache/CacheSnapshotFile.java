@@ -0,0 +1,192 @@
+package com.ecore.roles.client.cache;
+
+import com.ecore.roles.client.model.Team;
+import com.ecore.roles.client.model.User;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Binary, memory-mapped file format for {@link CacheSnapshot}s.
+ * <p>
+ * Layout, big-endian: magic, version, save time in epoch millis, then the user count followed by
+ * each user, then the team count followed by each team. UUIDs are two longs, nullable UUIDs are
+ * prefixed by a presence byte and strings are a length (-1 for null) followed by UTF-8 bytes.
+ * <p>
+ * Files are written to a sibling temporary file and moved into place, so a crash mid-write never
+ * leaves a truncated snapshot behind.
+ */
+public final class CacheSnapshotFile {
+
+    private static final int MAGIC = 0x524f4c53;
+    private static final int VERSION = 1;
+
+    private CacheSnapshotFile() {}
+
+    public static void write(Path path, CacheSnapshot snapshot) throws IOException {
+        List<byte[][]> users = new ArrayList<>(snapshot.getUsers().size());
+        List<byte[]> teamNames = new ArrayList<>(snapshot.getTeams().size());
+        long size = Integer.BYTES * 2 + Long.BYTES + Integer.BYTES * 2;
+        for (User user : snapshot.getUsers()) {
+            byte[][] strings = {
+                    utf8(user.getFirstName()),
+                    utf8(user.getLastName()),
+                    utf8(user.getDisplayName()),
+                    utf8(user.getAvatarUrl()),
+                    utf8(user.getLocation())};
+            users.add(strings);
+            size += Long.BYTES * 2;
+            for (byte[] string : strings) {
+                size += sizeOf(string);
+            }
+        }
+        for (Team team : snapshot.getTeams()) {
+            byte[] name = utf8(team.getName());
+            teamNames.add(name);
+            int members = team.getTeamMemberIds() == null ? 0 : team.getTeamMemberIds().size();
+            size += Long.BYTES * 2 + sizeOf(name) + 1 + Long.BYTES * 2 + Integer.BYTES
+                    + (long) members * Long.BYTES * 2;
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel =
+                    FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.putInt(MAGIC);
+                buffer.putInt(VERSION);
+                buffer.putLong(snapshot.getSavedAt().toEpochMilli());
+                buffer.putInt(users.size());
+                for (int i = 0; i < users.size(); i++) {
+                    putUuid(buffer, snapshot.getUsers().get(i).getId());
+                    for (byte[] string : users.get(i)) {
+                        putString(buffer, string);
+                    }
+                }
+                buffer.putInt(teamNames.size());
+                for (int i = 0; i < teamNames.size(); i++) {
+                    Team team = snapshot.getTeams().get(i);
+                    putUuid(buffer, team.getId());
+                    putString(buffer, teamNames.get(i));
+                    buffer.put((byte) (team.getTeamLeadId() == null ? 0 : 1));
+                    putUuid(buffer, team.getTeamLeadId());
+                    List<UUID> members =
+                            team.getTeamMemberIds() == null ? List.of() : team.getTeamMemberIds();
+                    buffer.putInt(members.size());
+                    for (UUID member : members) {
+                        putUuid(buffer, member);
+                    }
+                }
+                buffer.force();
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public static CacheSnapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Not a cache snapshot: " + path);
+            }
+            Instant savedAt = Instant.ofEpochMilli(buffer.getLong());
+            int userCount = count(buffer);
+            List<User> users = new ArrayList<>(userCount);
+            for (int i = 0; i < userCount; i++) {
+                users.add(User.builder()
+                        .id(getUuid(buffer))
+                        .firstName(getString(buffer))
+                        .lastName(getString(buffer))
+                        .displayName(getString(buffer))
+                        .avatarUrl(getString(buffer))
+                        .location(getString(buffer))
+                        .build());
+            }
+            int teamCount = count(buffer);
+            List<Team> teams = new ArrayList<>(teamCount);
+            for (int i = 0; i < teamCount; i++) {
+                UUID id = getUuid(buffer);
+                String name = getString(buffer);
+                boolean hasLead = buffer.get() != 0;
+                UUID lead = getUuid(buffer);
+                int memberCount = count(buffer);
+                List<UUID> members = new ArrayList<>(memberCount);
+                for (int m = 0; m < memberCount; m++) {
+                    members.add(getUuid(buffer));
+                }
+                teams.add(Team.builder()
+                        .id(id)
+                        .name(name)
+                        .teamLeadId(hasLead ? lead : null)
+                        .teamMemberIds(members)
+                        .build());
+            }
+            return new CacheSnapshot(savedAt, users, teams);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Truncated or corrupt cache snapshot: " + path, e);
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long sizeOf(byte[] string) {
+        return Integer.BYTES + (string == null ? 0 : string.length);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] string) {
+        if (string == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        buffer.putInt(string.length);
+        buffer.put(string);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID id) {
+        buffer.putLong(id == null ? 0 : id.getMostSignificantBits());
+        buffer.putLong(id == null ? 0 : id.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static int count(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid element count " + count);
+        }
+        return count;
+    }
+}
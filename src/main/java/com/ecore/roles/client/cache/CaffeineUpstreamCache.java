@@ -0,0 +1,51 @@
+package com.ecore.roles.client.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.function.Function;
+
+public class CaffeineUpstreamCache<K, V> implements UpstreamCache<K, V> {
+
+    private final Cache<K, V> cache;
+
+    public CaffeineUpstreamCache(Cache<K, V> cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        return cache.get(key, loader);
+    }
+
+    @Override
+    public V getIfPresent(K key) {
+        return cache.getIfPresent(key);
+    }
+
+    @Override
+    public void put(K key, V value) {
+        cache.put(key, value);
+    }
+
+    @Override
+    public void invalidate(K key) {
+        cache.invalidate(key);
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new ArrayList<>(cache.asMap().values());
+    }
+}
@@ -0,0 +1,37 @@
+package com.ecore.roles.client.cache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.function.Function;
+
+public class NoOpUpstreamCache<K, V> implements UpstreamCache<K, V> {
+
+    @Override
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        return loader.apply(key);
+    }
+
+    @Override
+    public V getIfPresent(K key) {
+        return null;
+    }
+
+    @Override
+    public void put(K key, V value) {}
+
+    @Override
+    public void invalidate(K key) {}
+
+    @Override
+    public void invalidateAll() {}
+
+    @Override
+    public long size() {
+        return 0;
+    }
+
+    @Override
+    public Collection<V> values() {
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,28 @@
+package com.ecore.roles.client.cache;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * Read-through cache placed in front of the upstream clients. Values that the loader resolves to
+ * {@code null} are never cached.
+ */
+public interface UpstreamCache<K, V> {
+
+    V get(K key, Function<? super K, ? extends V> loader);
+
+    V getIfPresent(K key);
+
+    void put(K key, V value);
+
+    void invalidate(K key);
+
+    void invalidateAll();
+
+    long size();
+
+    /**
+     * Copy of the values currently held, for snapshotting.
+     */
+    Collection<V> values();
+}
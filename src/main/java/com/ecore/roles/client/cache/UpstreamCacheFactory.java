@@ -0,0 +1,111 @@
+package com.ecore.roles.client.cache;
+
+import com.ecore.roles.configuration.ClientsConfigurationProperties.CacheProperties;
+import com.ecore.roles.configuration.ClientsConfigurationProperties.EvictionPolicy;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+@Component
+public class UpstreamCacheFactory {
+
+    private final MeterRegistry meterRegistry;
+    private final Ticker ticker;
+    private final Executor executor;
+
+    @Autowired
+    public UpstreamCacheFactory(MeterRegistry meterRegistry) {
+        this(meterRegistry, Ticker.systemTicker(), ForkJoinPool.commonPool());
+    }
+
+    UpstreamCacheFactory(MeterRegistry meterRegistry, Ticker ticker, Executor executor) {
+        this.meterRegistry = meterRegistry;
+        this.ticker = ticker;
+        this.executor = executor;
+    }
+
+    public <K, V> UpstreamCache<K, V> create(String name, CacheProperties properties) {
+        if (!properties.isEnabled()) {
+            return new NoOpUpstreamCache<>();
+        }
+        return monitor(name, builder(properties).build());
+    }
+
+    /**
+     * Like {@link #create(String, CacheProperties)}, but when {@code softTtl} is set, entries older
+     * than it are served as they are while {@code reloader} fetches a fresh value in the background.
+     * Whatever the eviction policy, an entry is then dropped {@code ttl} after it was last written.
+     */
+    public <K, V> UpstreamCache<K, V> create(
+            String name,
+            CacheProperties properties,
+            Function<K, CompletableFuture<V>> reloader) {
+        if (!properties.isEnabled() || properties.getSoftTtl() == null) {
+            return create(name, properties);
+        }
+        if (properties.getSoftTtl().compareTo(properties.getTtl()) >= 0) {
+            throw new IllegalStateException(
+                    "Cache " + name + " soft-ttl must be shorter than its ttl");
+        }
+
+        Caffeine<Object, Object> builder = builder(properties);
+        if (properties.getEvictionPolicy() != EvictionPolicy.EXPIRE_AFTER_WRITE) {
+            // Reads keep an idle timeout alive, and stale values may not outlive ttl however often read.
+            builder.expireAfterWrite(properties.getTtl());
+        }
+        Cache<K, V> cache = builder
+                .refreshAfterWrite(properties.getSoftTtl())
+                .build(new CacheLoader<K, V>() {
+                    @Override
+                    public V load(K key) {
+                        try {
+                            return reloader.apply(key).join();
+                        } catch (CompletionException e) {
+                            if (e.getCause() instanceof RuntimeException) {
+                                throw (RuntimeException) e.getCause();
+                            }
+                            throw e;
+                        }
+                    }
+
+                    @Override
+                    public CompletableFuture<V> asyncReload(K key, V oldValue, Executor executor) {
+                        return reloader.apply(key);
+                    }
+                });
+        return monitor(name, cache);
+    }
+
+    private Caffeine<Object, Object> builder(CacheProperties properties) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .ticker(ticker)
+                .executor(executor)
+                .recordStats();
+        switch (properties.getEvictionPolicy()) {
+            case EXPIRE_AFTER_ACCESS:
+                builder.expireAfterAccess(properties.getTtl());
+                break;
+            case EXPIRE_AFTER_WRITE:
+            default:
+                builder.expireAfterWrite(properties.getTtl());
+        }
+        return builder;
+    }
+
+    private <K, V> UpstreamCache<K, V> monitor(String name, Cache<K, V> cache) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        return new CaffeineUpstreamCache<>(cache);
+    }
+}
@@ -6,6 +6,9 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.nio.file.Path;
+import java.time.Duration;
+
 @NoArgsConstructor
 @Getter
 @Setter
@@ -17,4 +20,166 @@ public class ClientsConfigurationProperties {
 
     private String teamsApiHost;
 
+    /**
+     * Most lookups a single request may have in flight against each upstream.
+     */
+    private int maxFanOut = 8;
+
+    /**
+     * Most ids a single bulk lookup may ask for.
+     */
+    private int maxLookupIds = 500;
+
+    /**
+     * Time a bulk lookup waits for upstream answers; ids still unresolved are reported as timed out.
+     */
+    private Duration lookupDeadline = Duration.ofSeconds(3);
+
+    private PoolProperties pool = new PoolProperties();
+
+    private ConnectionProperties usersConnection = new ConnectionProperties();
+
+    private ConnectionProperties teamsConnection = new ConnectionProperties();
+
+    private CacheProperties usersCache = new CacheProperties();
+
+    private CacheProperties teamsCache = new CacheProperties();
+
+    private ResilienceProperties usersResilience = new ResilienceProperties();
+
+    private ResilienceProperties teamsResilience = new ResilienceProperties();
+
+    private DirectoryProperties teamsDirectory = new DirectoryProperties();
+
+    private WarmupProperties warmup = new WarmupProperties();
+
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    public static class PoolProperties {
+
+        private int maxTotalConnections = 100;
+
+        private Duration idleTimeout = Duration.ofSeconds(30);
+
+        private Duration timeToLive = Duration.ofMinutes(5);
+
+    }
+
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    public static class ConnectionProperties {
+
+        /**
+         * Most connections open to the upstream, across the blocking and the non-blocking client.
+         */
+        private int maxConnections = 20;
+
+        /**
+         * Part of {@code maxConnections} reserved for the non-blocking client; the blocking pool gets the
+         * rest.
+         */
+        private int maxAsyncConnections = 5;
+
+        private Duration connectTimeout = Duration.ofSeconds(2);
+
+        private Duration readTimeout = Duration.ofSeconds(5);
+
+        private Duration poolAcquireTimeout = Duration.ofSeconds(1);
+
+        public int getMaxBlockingConnections() {
+            return maxConnections - maxAsyncConnections;
+        }
+
+    }
+
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    public static class CacheProperties {
+
+        private boolean enabled = true;
+
+        private Duration ttl = Duration.ofMinutes(5);
+
+        /**
+         * Age after which an entry is stale: it is still served, and refreshed in the background. Failed
+         * refreshes keep the stale value until {@code ttl} after it was written, even under
+         * {@code expire-after-access}. Unset disables stale-while-revalidate.
+         */
+        private Duration softTtl;
+
+        private long maxEntries = 10_000;
+
+        private EvictionPolicy evictionPolicy = EvictionPolicy.EXPIRE_AFTER_WRITE;
+
+    }
+
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    public static class ResilienceProperties {
+
+        private float failureRateThreshold = 50;
+
+        private float slowCallRateThreshold = 80;
+
+        private Duration slowCallDurationThreshold = Duration.ofSeconds(2);
+
+        private int slidingWindowSize = 20;
+
+        private int minimumNumberOfCalls = 10;
+
+        private Duration waitDurationInOpenState = Duration.ofSeconds(30);
+
+        private int permittedCallsInHalfOpenState = 5;
+
+        private int maxConcurrentCalls = 10;
+
+        private Duration maxWaitDuration = Duration.ZERO;
+
+    }
+
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    public static class DirectoryProperties {
+
+        private boolean enabled = true;
+
+        private Duration syncInterval = Duration.ofMinutes(1);
+
+    }
+
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    public static class WarmupProperties {
+
+        /**
+         * Preload users and teams before the application reports ready.
+         */
+        private boolean enabled = true;
+
+        /**
+         * File the user and team caches are persisted to, at shutdown and every {@code snapshotInterval},
+         * and restored from at boot. Unset disables snapshots.
+         */
+        private Path snapshotPath;
+
+        private Duration snapshotInterval = Duration.ofMinutes(5);
+
+        /**
+         * Older snapshots are ignored at boot rather than served as warm data.
+         */
+        private Duration snapshotMaxAge = Duration.ofHours(1);
+
+    }
+
+    public enum EvictionPolicy {
+        EXPIRE_AFTER_WRITE,
+        EXPIRE_AFTER_ACCESS
+    }
+
 }
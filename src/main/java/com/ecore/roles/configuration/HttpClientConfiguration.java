@@ -0,0 +1,107 @@
+package com.ecore.roles.configuration;
+
+import com.ecore.roles.configuration.ClientsConfigurationProperties.ConnectionProperties;
+import com.ecore.roles.configuration.ClientsConfigurationProperties.PoolProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class HttpClientConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager upstreamConnectionManager(
+            ClientsConfigurationProperties clientsConfigurationProperties) {
+        PoolProperties pool = clientsConfigurationProperties.getPool();
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                pool.getTimeToLive().toMillis(), TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(pool.getMaxTotalConnections());
+
+        UpstreamHosts.maxConnections(clientsConfigurationProperties,
+                ConnectionProperties::getMaxBlockingConnections)
+                .forEach((host, maxConnections) -> connectionManager.setMaxPerRoute(route(host),
+                        maxConnections));
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient upstreamHttpClient(
+            PoolingHttpClientConnectionManager upstreamConnectionManager,
+            ClientsConfigurationProperties clientsConfigurationProperties) {
+        return HttpClients.custom()
+                .setConnectionManager(upstreamConnectionManager)
+                .setDefaultRequestConfig(requestConfig(new ConnectionProperties()))
+                .evictExpiredConnections()
+                .evictIdleConnections(clientsConfigurationProperties.getPool().getIdleTimeout().toMillis(),
+                        TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Bean
+    public MeterBinder upstreamConnectionPoolMetrics(
+            PoolingHttpClientConnectionManager upstreamConnectionManager,
+            ClientsConfigurationProperties clientsConfigurationProperties) {
+        return registry -> {
+            new PoolingHttpClientConnectionManagerMetricsBinder(upstreamConnectionManager, "upstream")
+                    .bindTo(registry);
+            bindRouteMetrics(registry, upstreamConnectionManager, "users",
+                    route(clientsConfigurationProperties.getUsersApiHost()));
+            bindRouteMetrics(registry, upstreamConnectionManager, "teams",
+                    route(clientsConfigurationProperties.getTeamsApiHost()));
+        };
+    }
+
+    public static RequestConfig requestConfig(ConnectionProperties connection) {
+        return RequestConfig.custom()
+                .setConnectTimeout((int) connection.getConnectTimeout().toMillis())
+                .setSocketTimeout((int) connection.getReadTimeout().toMillis())
+                .setConnectionRequestTimeout((int) connection.getPoolAcquireTimeout().toMillis())
+                .build();
+    }
+
+    static HttpRoute route(String apiHost) {
+        return route(UpstreamHosts.host(apiHost));
+    }
+
+    private static HttpRoute route(HttpHost host) {
+        return new HttpRoute(host, null, "https".equalsIgnoreCase(host.getSchemeName()));
+    }
+
+    private static void bindRouteMetrics(
+            MeterRegistry registry,
+            PoolingHttpClientConnectionManager connectionManager,
+            String upstream,
+            HttpRoute route) {
+        Gauge.builder("upstream.pool.route.leased", connectionManager,
+                cm -> cm.getStats(route).getLeased())
+                .description("Connections currently leased for the upstream route")
+                .tag("upstream", upstream)
+                .register(registry);
+        Gauge.builder("upstream.pool.route.pending", connectionManager,
+                cm -> cm.getStats(route).getPending())
+                .description("Requests waiting for a connection to the upstream route")
+                .tag("upstream", upstream)
+                .register(registry);
+        Gauge.builder("upstream.pool.route.available", connectionManager,
+                cm -> cm.getStats(route).getAvailable())
+                .description("Idle connections kept alive for the upstream route")
+                .tag("upstream", upstream)
+                .register(registry);
+        Gauge.builder("upstream.pool.route.max", connectionManager,
+                cm -> cm.getStats(route).getMax())
+                .description("Maximum connections allowed for the upstream route")
+                .tag("upstream", upstream)
+                .register(registry);
+    }
+}
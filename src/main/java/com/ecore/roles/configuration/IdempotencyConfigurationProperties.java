@@ -0,0 +1,33 @@
+package com.ecore.roles.configuration;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@NoArgsConstructor
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "idempotency")
+public class IdempotencyConfigurationProperties {
+
+    /**
+     * Time the first response to an {@code Idempotency-Key} is replayed for.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * Most keys remembered at once; beyond that, the least used keys are evicted.
+     */
+    private long maxEntries = 10_000;
+
+    /**
+     * Longest a duplicate waits for the first request under its key before it is told to retry.
+     */
+    private Duration replayTimeout = Duration.ofSeconds(30);
+
+}
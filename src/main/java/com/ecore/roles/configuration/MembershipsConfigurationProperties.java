@@ -0,0 +1,108 @@
+package com.ecore.roles.configuration;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@NoArgsConstructor
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "memberships")
+public class MembershipsConfigurationProperties {
+
+    private WriteBehindProperties writeBehind = new WriteBehindProperties();
+
+    private EventsProperties events = new EventsProperties();
+
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    public static class WriteBehindProperties {
+
+        /**
+         * Accept assignments on {@code /v1/roles/memberships/async}: they are journaled, acknowledged
+         * with 202 and stored in the background.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Append-only journal of accepted assignments; its checkpoint is kept next to it.
+         */
+        private Path journalPath = Path.of("membership.journal");
+
+        /**
+         * Time appends wait for others to share one fsync. Zero syncs each append on its own.
+         */
+        private Duration syncInterval = Duration.ofMillis(2);
+
+        /**
+         * Most journaled assignments stored per database batch.
+         */
+        private int batchSize = 500;
+
+        /**
+         * Pause between drains once the journal has nothing left to store.
+         */
+        private Duration drainInterval = Duration.ofMillis(50);
+
+        /**
+         * Outcomes of this many recent assignments are kept for status lookups.
+         */
+        private long maxTrackedAssignments = 100_000;
+
+    }
+
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    public static class EventsProperties {
+
+        /**
+         * Pause between reads of new events from the outbox.
+         */
+        private Duration pollInterval = Duration.ofMillis(200);
+
+        /**
+         * Most events read from the outbox, or sent to one subscriber, at a time.
+         */
+        private int batchSize = 500;
+
+        /**
+         * Recent events kept in memory; subscribers further behind catch up from the outbox.
+         */
+        private int bufferSize = 10_000;
+
+        /**
+         * Time a missing event id is waited for before it is taken as rolled back and skipped.
+         */
+        private Duration gapTimeout = Duration.ofSeconds(5);
+
+        /**
+         * Idle subscribers are sent a comment this often, so dropped connections are noticed.
+         */
+        private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+        /**
+         * Connections are closed after this long; clients reconnect with {@code Last-Event-ID}.
+         */
+        private Duration subscriptionTimeout = Duration.ofMinutes(30);
+
+        /**
+         * Threads sending events to subscribers.
+         */
+        private int dispatchThreads = 4;
+
+        /**
+         * Events older than this are deleted from the outbox.
+         */
+        private Duration retention = Duration.ofDays(7);
+
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.ecore.roles.configuration;
+
+import com.ecore.roles.client.UpstreamGuard;
+import com.ecore.roles.configuration.ClientsConfigurationProperties.ResilienceProperties;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+@Configuration
+public class ResilienceConfiguration {
+
+    public static final String USERS = "users";
+    public static final String TEAMS = "teams";
+
+    @Bean
+    public CircuitBreakerRegistry upstreamCircuitBreakerRegistry() {
+        return CircuitBreakerRegistry.ofDefaults();
+    }
+
+    @Bean
+    public BulkheadRegistry upstreamBulkheadRegistry() {
+        return BulkheadRegistry.ofDefaults();
+    }
+
+    @Bean
+    public UpstreamGuard usersUpstreamGuard(
+            CircuitBreakerRegistry upstreamCircuitBreakerRegistry,
+            BulkheadRegistry upstreamBulkheadRegistry,
+            ClientsConfigurationProperties clientsConfigurationProperties) {
+        return upstreamGuard(USERS, upstreamCircuitBreakerRegistry, upstreamBulkheadRegistry,
+                clientsConfigurationProperties.getUsersResilience());
+    }
+
+    @Bean
+    public UpstreamGuard teamsUpstreamGuard(
+            CircuitBreakerRegistry upstreamCircuitBreakerRegistry,
+            BulkheadRegistry upstreamBulkheadRegistry,
+            ClientsConfigurationProperties clientsConfigurationProperties) {
+        return upstreamGuard(TEAMS, upstreamCircuitBreakerRegistry, upstreamBulkheadRegistry,
+                clientsConfigurationProperties.getTeamsResilience());
+    }
+
+    @Bean
+    public MeterBinder upstreamResilienceMetrics(
+            CircuitBreakerRegistry upstreamCircuitBreakerRegistry,
+            BulkheadRegistry upstreamBulkheadRegistry) {
+        return registry -> {
+            TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(upstreamCircuitBreakerRegistry)
+                    .bindTo(registry);
+            TaggedBulkheadMetrics.ofBulkheadRegistry(upstreamBulkheadRegistry).bindTo(registry);
+        };
+    }
+
+    private static UpstreamGuard upstreamGuard(
+            String upstream,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            BulkheadRegistry bulkheadRegistry,
+            ResilienceProperties resilience) {
+        CircuitBreakerConfig circuitBreakerConfig = CircuitBreakerConfig.custom()
+                .failureRateThreshold(resilience.getFailureRateThreshold())
+                .slowCallRateThreshold(resilience.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(resilience.getSlowCallDurationThreshold())
+                .slidingWindowSize(resilience.getSlidingWindowSize())
+                .minimumNumberOfCalls(resilience.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(resilience.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(resilience.getPermittedCallsInHalfOpenState())
+                .recordException(ResilienceConfiguration::isUpstreamFailure)
+                .build();
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(resilience.getMaxConcurrentCalls())
+                .maxWaitDuration(resilience.getMaxWaitDuration())
+                .build();
+        return new UpstreamGuard(upstream,
+                circuitBreakerRegistry.circuitBreaker(upstream, circuitBreakerConfig),
+                bulkheadRegistry.bulkhead(upstream, bulkheadConfig));
+    }
+
+    // A 4xx is an answer about the request, not a sign the upstream is unhealthy; a full bulkhead is
+    // our own limit.
+    private static boolean isUpstreamFailure(Throwable error) {
+        if (error instanceof HttpStatusCodeException) {
+            return ((HttpStatusCodeException) error).getStatusCode().is5xxServerError();
+        }
+        if (error instanceof WebClientResponseException) {
+            return ((WebClientResponseException) error).getStatusCode().is5xxServerError();
+        }
+        return !(error instanceof BulkheadFullException);
+    }
+}
@@ -1,14 +1,39 @@
 package com.ecore.roles.configuration;
 
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import static com.ecore.roles.configuration.HttpClientConfiguration.requestConfig;
+
 @Configuration
 public class RestTemplateConfiguration {
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        return builder.build();
+    public RestTemplate restTemplate(
+            RestTemplateBuilder builder,
+            CloseableHttpClient upstreamHttpClient,
+            ClientsConfigurationProperties clientsConfigurationProperties) {
+        RequestConfig usersRequestConfig = requestConfig(clientsConfigurationProperties.getUsersConnection());
+        RequestConfig teamsRequestConfig = requestConfig(clientsConfigurationProperties.getTeamsConnection());
+
+        HttpComponentsClientHttpRequestFactory requestFactory =
+                new HttpComponentsClientHttpRequestFactory(upstreamHttpClient);
+        requestFactory.setHttpContextFactory((method, uri) -> {
+            HttpClientContext context = HttpClientContext.create();
+            String url = uri.toString();
+            if (url.startsWith(clientsConfigurationProperties.getUsersApiHost())) {
+                context.setRequestConfig(usersRequestConfig);
+            } else if (url.startsWith(clientsConfigurationProperties.getTeamsApiHost())) {
+                context.setRequestConfig(teamsRequestConfig);
+            }
+            return context;
+        });
+
+        return builder.requestFactory(() -> requestFactory).build();
     }
 }
@@ -0,0 +1,56 @@
+package com.ecore.roles.configuration;
+
+import com.ecore.roles.configuration.ClientsConfigurationProperties.ConnectionProperties;
+import org.apache.http.HttpHost;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Connection budgets of the upstream hosts, read from the {@code clients.*-connection} settings by both
+ * the blocking and the non-blocking client, so each takes its own share of one per-upstream limit.
+ */
+final class UpstreamHosts {
+
+    private UpstreamHosts() {
+    }
+
+    static HttpHost host(String apiHost) {
+        URI uri = URI.create(apiHost);
+        int port = uri.getPort();
+        if (port < 0) {
+            port = "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+        }
+        return new HttpHost(uri.getHost(), port, uri.getScheme());
+    }
+
+    /**
+     * The {@code share} of each upstream's connections, by host. Both upstreams may live behind the same
+     * host, in which case they share one budget.
+     */
+    static Map<HttpHost, Integer> maxConnections(
+            ClientsConfigurationProperties clientsConfigurationProperties,
+            ToIntFunction<ConnectionProperties> share) {
+        Map<HttpHost, Integer> maxConnections = new HashMap<>();
+        maxConnections.merge(host(clientsConfigurationProperties.getUsersApiHost()),
+                budget("users", clientsConfigurationProperties.getUsersConnection(), share), Integer::sum);
+        maxConnections.merge(host(clientsConfigurationProperties.getTeamsApiHost()),
+                budget("teams", clientsConfigurationProperties.getTeamsConnection(), share), Integer::sum);
+        return maxConnections;
+    }
+
+    private static int budget(
+            String upstream,
+            ConnectionProperties connection,
+            ToIntFunction<ConnectionProperties> share) {
+        if (connection.getMaxAsyncConnections() < 1
+                || connection.getMaxAsyncConnections() >= connection.getMaxConnections()) {
+            throw new IllegalStateException(String.format(
+                    "clients.%s-connection.max-async-connections must be between 1 and max-connections - 1",
+                    upstream));
+        }
+        return share.applyAsInt(connection);
+    }
+}
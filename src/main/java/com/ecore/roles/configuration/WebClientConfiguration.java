@@ -0,0 +1,84 @@
+package com.ecore.roles.configuration;
+
+import com.ecore.roles.configuration.ClientsConfigurationProperties.ConnectionProperties;
+import com.ecore.roles.configuration.ClientsConfigurationProperties.PoolProperties;
+import io.netty.channel.ChannelOption;
+import org.apache.http.HttpHost;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+
+@Configuration
+public class WebClientConfiguration {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider upstreamConnectionProvider(
+            ClientsConfigurationProperties clientsConfigurationProperties) {
+        PoolProperties pool = clientsConfigurationProperties.getPool();
+        ConnectionProvider.Builder builder = ConnectionProvider.builder("upstream")
+                .maxConnections(pool.getMaxTotalConnections())
+                .maxIdleTime(pool.getIdleTimeout())
+                .maxLifeTime(pool.getTimeToLive())
+                .evictInBackground(pool.getIdleTimeout())
+                .metrics(true);
+        // Each host gets the async share of its upstream budget; the blocking pool holds the rest.
+        Map<HttpHost, Integer> maxConnections = UpstreamHosts.maxConnections(clientsConfigurationProperties,
+                ConnectionProperties::getMaxAsyncConnections);
+        hostSpec(builder, maxConnections, clientsConfigurationProperties.getUsersApiHost(),
+                clientsConfigurationProperties.getUsersConnection());
+        hostSpec(builder, maxConnections, clientsConfigurationProperties.getTeamsApiHost(),
+                clientsConfigurationProperties.getTeamsConnection());
+        return builder.build();
+    }
+
+    @Bean
+    public WebClient usersWebClient(
+            WebClient.Builder builder,
+            ConnectionProvider upstreamConnectionProvider,
+            ClientsConfigurationProperties clientsConfigurationProperties) {
+        return webClient(builder, upstreamConnectionProvider,
+                clientsConfigurationProperties.getUsersApiHost(),
+                clientsConfigurationProperties.getUsersConnection());
+    }
+
+    @Bean
+    public WebClient teamsWebClient(
+            WebClient.Builder builder,
+            ConnectionProvider upstreamConnectionProvider,
+            ClientsConfigurationProperties clientsConfigurationProperties) {
+        return webClient(builder, upstreamConnectionProvider,
+                clientsConfigurationProperties.getTeamsApiHost(),
+                clientsConfigurationProperties.getTeamsConnection());
+    }
+
+    private static WebClient webClient(
+            WebClient.Builder builder,
+            ConnectionProvider connectionProvider,
+            String apiHost,
+            ConnectionProperties connection) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connection.getConnectTimeout().toMillis())
+                .responseTimeout(connection.getReadTimeout());
+        return builder.clone()
+                .baseUrl(apiHost)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    private static void hostSpec(
+            ConnectionProvider.Builder builder,
+            Map<HttpHost, Integer> maxConnections,
+            String apiHost,
+            ConnectionProperties connection) {
+        HttpHost host = UpstreamHosts.host(apiHost);
+        builder.forRemoteHost(InetSocketAddress.createUnresolved(host.getHostName(), host.getPort()),
+                spec -> spec.maxConnections(maxConnections.get(host))
+                        .pendingAcquireTimeout(connection.getPoolAcquireTimeout()));
+    }
+}
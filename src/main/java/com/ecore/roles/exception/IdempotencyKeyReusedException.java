@@ -0,0 +1,10 @@
+package com.ecore.roles.exception;
+
+import static java.lang.String.format;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String idempotencyKey) {
+        super(format("Idempotency-Key %s was already used for a different request", idempotencyKey));
+    }
+}
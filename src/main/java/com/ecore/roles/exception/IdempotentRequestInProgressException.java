@@ -0,0 +1,10 @@
+package com.ecore.roles.exception;
+
+import static java.lang.String.format;
+
+public class IdempotentRequestInProgressException extends RuntimeException {
+
+    public IdempotentRequestInProgressException(String idempotencyKey) {
+        super(format("Request with Idempotency-Key %s is still in progress, retry later", idempotencyKey));
+    }
+}
@@ -6,6 +6,10 @@ import static java.lang.String.format;
 
 public class ResourceNotFoundException extends RuntimeException {
 
+    public <T> ResourceNotFoundException(Class<T> resource) {
+        super(format("%s not found", resource.getSimpleName()));
+    }
+
     public <T> ResourceNotFoundException(Class<T> resource, UUID id) {
         super(format("%s %s not found", resource.getSimpleName(), id));
     }
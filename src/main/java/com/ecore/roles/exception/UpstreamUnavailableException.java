@@ -0,0 +1,10 @@
+package com.ecore.roles.exception;
+
+import static java.lang.String.format;
+
+public class UpstreamUnavailableException extends RuntimeException {
+
+    public UpstreamUnavailableException(String upstream, Throwable cause) {
+        super(format("%s service is unavailable", upstream), cause);
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecore.roles.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Outcome of resolving one id of a bulk lookup: either the value found upstream or the error that
+ * prevented it.
+ */
+@AllArgsConstructor
+@Getter
+public class Lookup<T> {
+
+    private final UUID id;
+
+    private final T value;
+
+    private final Throwable error;
+
+    public static <T> Lookup<T> found(UUID id, T value) {
+        return new Lookup<>(id, value, null);
+    }
+
+    public static <T> Lookup<T> failed(UUID id, Throwable error) {
+        return new Lookup<>(id, null, error);
+    }
+
+    public boolean isFound() {
+        return error == null;
+    }
+}
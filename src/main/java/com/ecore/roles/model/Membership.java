@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.Type;
 
@@ -17,7 +19,15 @@ import java.util.UUID;
 @Setter
 @Builder
 @Entity
-@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"team_id", "user_id"}))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "membership")
+@Table(
+        uniqueConstraints = @UniqueConstraint(name = "uk_membership_team_user",
+                columnNames = {"team_id", "user_id"}),
+        indexes = {
+                @Index(name = "idx_membership_role", columnList = "role_id, id"),
+                @Index(name = "idx_membership_user", columnList = "user_id, id"),
+                @Index(name = "idx_membership_team", columnList = "team_id, id")})
 public class Membership {
 
     @Id
@@ -30,10 +40,12 @@ public class Membership {
     @JoinColumn(name = "role_id", nullable = false)
     private Role role;
 
-    @Column(name = "user_id", nullable = false)
+    @Column(name = "user_id", nullable = false, columnDefinition = "binary(16)")
+    @Type(type = "uuid-binary")
     private UUID userId;
 
-    @Column(name = "team_id", nullable = false)
+    @Column(name = "team_id", nullable = false, columnDefinition = "binary(16)")
+    @Type(type = "uuid-binary")
     private UUID teamId;
 
 }
@@ -0,0 +1,31 @@
+package com.ecore.roles.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of one item of a bulk assignment: either the stored membership or the error that rejected
+ * it.
+ */
+@AllArgsConstructor
+@Getter
+public class MembershipAssignment {
+
+    private final int index;
+
+    private final Membership membership;
+
+    private final RuntimeException error;
+
+    public static MembershipAssignment created(int index, Membership membership) {
+        return new MembershipAssignment(index, membership, null);
+    }
+
+    public static MembershipAssignment failed(int index, RuntimeException error) {
+        return new MembershipAssignment(index, null, error);
+    }
+
+    public boolean isCreated() {
+        return error == null;
+    }
+}
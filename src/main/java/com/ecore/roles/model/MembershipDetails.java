@@ -0,0 +1,21 @@
+package com.ecore.roles.model;
+
+import com.ecore.roles.client.model.Team;
+import com.ecore.roles.client.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A membership together with the user and team it refers to. Either may be {@code null} when the
+ * upstream could not resolve it.
+ */
+@AllArgsConstructor(staticName = "of")
+@Getter
+public class MembershipDetails {
+
+    private final Membership membership;
+
+    private final User user;
+
+    private final Team team;
+}
@@ -0,0 +1,54 @@
+package com.ecore.roles.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A change recorded in the {@code membership_event} outbox. Ids grow with every insert, so they
+ * double as the offset a subscriber resumes from.
+ */
+@AllArgsConstructor
+@Getter
+@Builder
+public class MembershipEvent {
+
+    public enum Type {
+        ROLE_CREATED,
+        MEMBERSHIP_CREATED
+    }
+
+    private final long id;
+
+    private final Type type;
+
+    private final UUID roleId;
+
+    private final UUID membershipId;
+
+    private final UUID userId;
+
+    private final UUID teamId;
+
+    private final Instant createdAt;
+
+    public static MembershipEvent of(Role role) {
+        return MembershipEvent.builder()
+                .type(Type.ROLE_CREATED)
+                .roleId(role.getId())
+                .build();
+    }
+
+    public static MembershipEvent of(Membership membership) {
+        return MembershipEvent.builder()
+                .type(Type.MEMBERSHIP_CREATED)
+                .roleId(membership.getRole().getId())
+                .membershipId(membership.getId())
+                .userId(membership.getUserId())
+                .teamId(membership.getTeamId())
+                .build();
+    }
+}
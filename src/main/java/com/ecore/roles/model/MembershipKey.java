@@ -0,0 +1,21 @@
+package com.ecore.roles.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@AllArgsConstructor(staticName = "of")
+@Getter
+@EqualsAndHashCode
+public class MembershipKey {
+
+    private final UUID userId;
+
+    private final UUID teamId;
+
+    public static MembershipKey of(Membership membership) {
+        return of(membership.getUserId(), membership.getTeamId());
+    }
+}
@@ -0,0 +1,39 @@
+package com.ecore.roles.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Progress of an assignment accepted in write-behind mode: pending until the journaled entry has been
+ * stored, then either the stored membership or the error that rejected it.
+ */
+@AllArgsConstructor
+@Getter
+public class MembershipTicket {
+
+    public enum State {
+        PENDING,
+        CREATED,
+        FAILED
+    }
+
+    private final UUID trackingId;
+
+    private final State state;
+
+    private final Membership membership;
+
+    private final RuntimeException error;
+
+    public static MembershipTicket pending(UUID trackingId, Membership membership) {
+        return new MembershipTicket(trackingId, State.PENDING, membership, null);
+    }
+
+    public static MembershipTicket of(UUID trackingId, MembershipAssignment assignment) {
+        return assignment.isCreated()
+                ? new MembershipTicket(trackingId, State.CREATED, assignment.getMembership(), null)
+                : new MembershipTicket(trackingId, State.FAILED, null, assignment.getError());
+    }
+}
@@ -0,0 +1,146 @@
+package com.ecore.roles.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Maintained membership counts per role and per team, kept in {@code role_membership_count} and
+ * {@code team_membership_count}. Increments run on the caller's connection, so they commit or roll
+ * back with the membership inserts they count.
+ */
+@RequiredArgsConstructor
+@Repository
+public class MembershipCountRepository {
+
+    private static final String INCREMENT_ROLE =
+            "update role_membership_count set members = members + ? where role_id = ?";
+    private static final String INSERT_ROLE =
+            "insert into role_membership_count (role_id, members) values (?, ?)";
+    private static final String INCREMENT_TEAM =
+            "update team_membership_count set members = members + ? where team_id = ?";
+    private static final String INSERT_TEAM =
+            "insert into team_membership_count (team_id, members) values (?, ?)";
+    private static final String SELECT_ROLES =
+            "select role_id, members from role_membership_count";
+    private static final String SELECT_TEAMS =
+            "select team_id, members from team_membership_count where team_id in (:teamIds)";
+
+    private static final String REPAIR_ROLES =
+            "update role_membership_count c"
+                    + " set members = (select count(*) from membership m where m.role_id = c.role_id)"
+                    + " where members <> (select count(*) from membership m where m.role_id = c.role_id)";
+    private static final String INSERT_MISSING_ROLES =
+            "insert into role_membership_count (role_id, members)"
+                    + " select m.role_id, count(*) from membership m"
+                    + " where not exists (select 1 from role_membership_count c where c.role_id = m.role_id)"
+                    + " group by m.role_id";
+    private static final String REPAIR_TEAMS =
+            "update team_membership_count c"
+                    + " set members = (select count(*) from membership m where m.team_id = c.team_id)"
+                    + " where members <> (select count(*) from membership m where m.team_id = c.team_id)";
+    private static final String INSERT_MISSING_TEAMS =
+            "insert into team_membership_count (team_id, members)"
+                    + " select m.team_id, count(*) from membership m"
+                    + " where not exists (select 1 from team_membership_count c where c.team_id = m.team_id)"
+                    + " group by m.team_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public void increment(Map<UUID, Integer> byRole, Map<UUID, Integer> byTeam) {
+        timed("increment", () -> {
+            // Rows are locked in key order, so concurrent writers cannot deadlock on each other.
+            new TreeMap<>(byRole).forEach((roleId, count) -> upsert(INCREMENT_ROLE, INSERT_ROLE,
+                    roleId.toString(), count));
+            new TreeMap<>(byTeam).forEach((teamId, count) -> upsert(INCREMENT_TEAM, INSERT_TEAM,
+                    bytes(teamId), count));
+        });
+    }
+
+    public Map<UUID, Long> findAllByRole() {
+        return timed("findAllByRole", () -> {
+            Map<UUID, Long> counts = new HashMap<>();
+            jdbcTemplate.query(SELECT_ROLES, resultSet -> {
+                counts.put(UUID.fromString(resultSet.getString("role_id")), resultSet.getLong("members"));
+            });
+            return counts;
+        });
+    }
+
+    public Map<UUID, Long> findByTeamIdIn(Collection<UUID> teamIds) {
+        if (teamIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        List<byte[]> ids = teamIds.stream()
+                .map(MembershipCountRepository::bytes)
+                .collect(Collectors.toList());
+        return timed("findByTeamIdIn", () -> {
+            Map<UUID, Long> counts = new HashMap<>();
+            namedParameterJdbcTemplate.query(SELECT_TEAMS, new MapSqlParameterSource("teamIds", ids),
+                    resultSet -> {
+                        counts.put(uuid(resultSet.getBytes("team_id")), resultSet.getLong("members"));
+                    });
+            return counts;
+        });
+    }
+
+    /**
+     * Recounts every role and team from the membership table and overwrites the counts that differ.
+     *
+     * @return the number of counts repaired or added
+     */
+    public int reconcile() {
+        return timed("reconcile", () -> jdbcTemplate.update(REPAIR_ROLES)
+                + jdbcTemplate.update(INSERT_MISSING_ROLES)
+                + jdbcTemplate.update(REPAIR_TEAMS)
+                + jdbcTemplate.update(INSERT_MISSING_TEAMS));
+    }
+
+    private void upsert(String increment, String insert, Object id, int count) {
+        if (jdbcTemplate.update(increment, count, id) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(insert, id, count);
+        } catch (DuplicateKeyException e) {
+            // Another writer created the row first; add to it instead.
+            jdbcTemplate.update(increment, count, id);
+        }
+    }
+
+    private void timed(String method, Runnable query) {
+        RepositoryInvocations.timed(meterRegistry, MembershipCountRepository.class, method, query);
+    }
+
+    private <T> T timed(String method, Supplier<T> query) {
+        return RepositoryInvocations.timed(meterRegistry, MembershipCountRepository.class, method, query);
+    }
+
+    private static byte[] bytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    private static UUID uuid(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,75 @@
+package com.ecore.roles.repository;
+
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.Role;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Streams memberships straight off a forward-only JDBC cursor, so callers can process result sets
+ * of any size without materialising them.
+ */
+@RequiredArgsConstructor
+@Repository
+public class MembershipCursorRepository {
+
+    static final int FETCH_SIZE = 500;
+
+    private static final String SELECT_ALL =
+            "select id, role_id, user_id, team_id from membership";
+    private static final String SELECT_BY_ROLE_ID =
+            "select id, role_id, user_id, team_id from membership where role_id = ? order by id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public void streamByRoleId(UUID roleId, Consumer<Membership> consumer) {
+        timed("streamByRoleId", () -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_BY_ROLE_ID,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setString(1, roleId.toString());
+            return statement;
+        }, resultSet -> {
+            consumer.accept(mapRow(resultSet));
+        }));
+    }
+
+    public void streamAll(Consumer<Membership> consumer) {
+        timed("streamAll", () -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_ALL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, resultSet -> {
+            consumer.accept(mapRow(resultSet));
+        }));
+    }
+
+    private void timed(String method, Runnable query) {
+        RepositoryInvocations.timed(meterRegistry, MembershipCursorRepository.class, method, query);
+    }
+
+    static Membership mapRow(ResultSet resultSet) throws SQLException {
+        return Membership.builder()
+                .id(UUID.fromString(resultSet.getString("id")))
+                .role(Role.builder().id(UUID.fromString(resultSet.getString("role_id"))).build())
+                .userId(uuid(resultSet.getBytes("user_id")))
+                .teamId(uuid(resultSet.getBytes("team_id")))
+                .build();
+    }
+
+    private static UUID uuid(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,118 @@
+package com.ecore.roles.repository;
+
+import com.ecore.roles.model.MembershipEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Transactional outbox of role and membership changes, kept in {@code membership_event}. Appends run
+ * on the caller's connection, so an event commits or rolls back with the change it records.
+ */
+@RequiredArgsConstructor
+@Repository
+public class MembershipEventRepository {
+
+    private static final String INSERT =
+            "insert into membership_event (type, role_id, membership_id, user_id, team_id, created_at)"
+                    + " values (?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_AFTER =
+            "select id, type, role_id, membership_id, user_id, team_id, created_at from membership_event"
+                    + " where id > ? order by id limit ?";
+    private static final String SELECT_BETWEEN =
+            "select id, type, role_id, membership_id, user_id, team_id, created_at from membership_event"
+                    + " where id > ? and id <= ? order by id limit ?";
+    private static final String SELECT_MAX_ID =
+            "select coalesce(max(id), 0) from membership_event";
+    private static final String SELECT_MIN_ID =
+            "select min(id) from membership_event";
+    private static final String DELETE_BEFORE =
+            "delete from membership_event where created_at < ?";
+
+    private static final RowMapper<MembershipEvent> ROW_MAPPER = (resultSet, rowNum) -> MembershipEvent
+            .builder()
+            .id(resultSet.getLong("id"))
+            .type(MembershipEvent.Type.valueOf(resultSet.getString("type")))
+            .roleId(UUID.fromString(resultSet.getString("role_id")))
+            .membershipId(resultSet.getString("membership_id") == null
+                    ? null
+                    : UUID.fromString(resultSet.getString("membership_id")))
+            .userId(uuid(resultSet.getBytes("user_id")))
+            .teamId(uuid(resultSet.getBytes("team_id")))
+            .createdAt(resultSet.getTimestamp("created_at").toInstant())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public void append(List<MembershipEvent> events) {
+        Timestamp now = Timestamp.from(Instant.now());
+        timed("append", () -> jdbcTemplate.batchUpdate(INSERT, events, events.size(), (statement, event) -> {
+            statement.setString(1, event.getType().name());
+            statement.setString(2, event.getRoleId().toString());
+            statement.setString(3, Objects.toString(event.getMembershipId(), null));
+            statement.setBytes(4, bytes(event.getUserId()));
+            statement.setBytes(5, bytes(event.getTeamId()));
+            statement.setTimestamp(6, now);
+        }));
+    }
+
+    public List<MembershipEvent> findAfter(long after, int limit) {
+        return timed("findAfter", () -> jdbcTemplate.query(SELECT_AFTER, ROW_MAPPER, after, limit));
+    }
+
+    public List<MembershipEvent> findBetween(long after, long upTo, int limit) {
+        return timed("findBetween", () -> jdbcTemplate.query(SELECT_BETWEEN, ROW_MAPPER, after, upTo, limit));
+    }
+
+    public long findMaxId() {
+        return timed("findMaxId", () -> jdbcTemplate.queryForObject(SELECT_MAX_ID, Long.class));
+    }
+
+    /**
+     * Id of the oldest event not yet purged, or {@code null} when the outbox is empty.
+     */
+    public Long findMinId() {
+        return timed("findMinId", () -> jdbcTemplate.queryForObject(SELECT_MIN_ID, Long.class));
+    }
+
+    public int deleteCreatedBefore(Instant cutoff) {
+        return timed("deleteCreatedBefore", () -> jdbcTemplate.update(DELETE_BEFORE, Timestamp.from(cutoff)));
+    }
+
+    private void timed(String method, Runnable query) {
+        RepositoryInvocations.timed(meterRegistry, MembershipEventRepository.class, method, query);
+    }
+
+    private <T> T timed(String method, Supplier<T> query) {
+        return RepositoryInvocations.timed(meterRegistry, MembershipEventRepository.class, method, query);
+    }
+
+    private static byte[] bytes(UUID id) {
+        if (id == null) {
+            return null;
+        }
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    private static UUID uuid(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -1,17 +1,39 @@
 package com.ecore.roles.repository;
 
 import com.ecore.roles.model.Membership;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 @Repository
 public interface MembershipRepository extends JpaRepository<Membership, UUID> {
 
     Optional<Membership> findByUserIdAndTeamId(UUID userId, UUID teamId);
 
+    // Cached results are invalidated by Hibernate whenever the membership table is written.
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Membership> findByRoleId(UUID roleId);
+
+    List<Membership> findByRoleIdOrderByIdAsc(UUID roleId, Pageable pageable);
+
+    List<Membership> findByRoleIdAndIdGreaterThanOrderByIdAsc(UUID roleId, UUID id, Pageable pageable);
+
+    List<Membership> findByUserIdOrderByIdAsc(UUID userId, Pageable pageable);
+
+    List<Membership> findByUserIdAndIdGreaterThanOrderByIdAsc(UUID userId, UUID id, Pageable pageable);
+
+    List<Membership> findByTeamIdOrderByIdAsc(UUID teamId, Pageable pageable);
+
+    List<Membership> findByTeamIdAndIdGreaterThanOrderByIdAsc(UUID teamId, UUID id, Pageable pageable);
+
+    List<Membership> findByUserIdInAndTeamIdIn(Collection<UUID> userIds, Collection<UUID> teamIds);
 }
@@ -0,0 +1,44 @@
+package com.ecore.roles.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.function.Supplier;
+
+/**
+ * Times plain JDBC repository calls under the meter and tags Spring Data records for the JPA
+ * repositories, so all queries show up together.
+ */
+final class RepositoryInvocations {
+
+    private static final String INVOCATIONS = "spring.data.repository.invocations";
+
+    private RepositoryInvocations() {}
+
+    static void timed(MeterRegistry meterRegistry, Class<?> repository, String method, Runnable query) {
+        timed(meterRegistry, repository, method, () -> {
+            query.run();
+            return null;
+        });
+    }
+
+    static <T> T timed(MeterRegistry meterRegistry, Class<?> repository, String method, Supplier<T> query) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String state = "SUCCESS";
+        String exception = "None";
+        try {
+            return query.get();
+        } catch (RuntimeException e) {
+            state = "ERROR";
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(INVOCATIONS)
+                    .tag("repository", repository.getSimpleName())
+                    .tag("method", method)
+                    .tag("state", state)
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+}
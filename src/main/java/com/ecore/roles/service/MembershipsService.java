@@ -2,13 +2,38 @@ package com.ecore.roles.service;
 
 import com.ecore.roles.exception.ResourceNotFoundException;
 import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.MembershipAssignment;
+import com.ecore.roles.model.MembershipDetails;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface MembershipsService {
 
     Membership assignRoleToMembership(Membership membership) throws ResourceNotFoundException;
 
+    List<MembershipAssignment> assignRolesToMemberships(List<Membership> memberships);
+
     List<Membership> getMemberships(UUID roleId);
+
+    List<Membership> getMemberships(UUID roleId, UUID after, int limit);
+
+    List<Membership> getMembershipsByUser(UUID userId, UUID after, int limit);
+
+    List<Membership> getMembershipsByTeam(UUID teamId, UUID after, int limit);
+
+    Map<UUID, Long> countMembershipsByRole();
+
+    Map<UUID, Long> countMembershipsByTeam(Collection<UUID> teamIds);
+
+    void streamMemberships(UUID roleId, Consumer<Membership> consumer);
+
+    /**
+     * One keyset page of the role's memberships, each with its user and team.
+     */
+    CompletableFuture<List<MembershipDetails>> getMembershipDetails(UUID roleId, UUID after, int limit);
 }
@@ -11,6 +11,10 @@ public interface RolesService {
 
     Role GetRole(UUID id);
 
+    Role GetRole(UUID userId, UUID teamId);
+
     List<Role> GetRoles();
 
+    List<Role> GetRoles(UUID after, int limit);
+
 }
@@ -1,13 +1,31 @@
 package com.ecore.roles.service;
 
 import com.ecore.roles.client.model.Team;
+import com.ecore.roles.model.Lookup;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface TeamsService {
 
     Team getTeam(UUID id);
 
     List<Team> getTeams();
+
+    CompletableFuture<Team> getTeamAsync(UUID id);
+
+    CompletableFuture<List<Team>> getTeamsAsync();
+
+    CompletableFuture<List<Lookup<Team>>> lookupTeams(Collection<UUID> ids);
+
+    List<Team> getCachedTeams();
+
+    void cacheTeams(Collection<Team> teams);
+
+    boolean isTeamMember(UUID teamId, UUID userId);
+
+    Set<UUID> getTeamIds(UUID userId);
 }
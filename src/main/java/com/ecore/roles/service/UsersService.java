@@ -1,13 +1,26 @@
 package com.ecore.roles.service;
 
 import com.ecore.roles.client.model.User;
+import com.ecore.roles.model.Lookup;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface UsersService {
 
     User getUser(UUID id);
 
     List<User> getUsers();
+
+    CompletableFuture<User> getUserAsync(UUID id);
+
+    CompletableFuture<List<User>> getUsersAsync();
+
+    CompletableFuture<List<Lookup<User>>> lookupUsers(Collection<UUID> ids);
+
+    List<User> getCachedUsers();
+
+    void cacheUsers(Collection<User> users);
 }
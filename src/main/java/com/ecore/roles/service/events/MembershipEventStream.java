@@ -0,0 +1,296 @@
+package com.ecore.roles.service.events;
+
+import com.ecore.roles.configuration.MembershipsConfigurationProperties;
+import com.ecore.roles.configuration.MembershipsConfigurationProperties.EventsProperties;
+import com.ecore.roles.model.MembershipEvent;
+import com.ecore.roles.repository.MembershipEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Fans committed outbox events out to subscribers. One poller reads new events in id order and keeps
+ * the most recent ones in memory; each subscriber has its own cursor and is served from memory, or
+ * from the outbox when it resumes from further back, by a small pool of dispatch threads.
+ * <p>
+ * Ids are allocated at insert but become visible at commit, so a missing id may still be in flight.
+ * The poller stops at such a gap until the event shows up or {@code gapTimeout} passes, after which
+ * the id is taken as rolled back. Subscribers therefore never skip an event that commits in time.
+ * <p>
+ * A subscriber whose offset is older than what the outbox still retains cannot be caught up: it is
+ * sent a reset to the head instead, and has to re-read the current state before applying what follows.
+ */
+@Log4j2
+@Component
+public class MembershipEventStream {
+
+    /**
+     * Receives a subscriber's events, one at a time and in id order.
+     */
+    public interface Listener {
+
+        void onEvent(MembershipEvent event) throws IOException;
+
+        void onHeartbeat() throws IOException;
+
+        /**
+         * Events after the subscriber's offset were purged before they could be sent; the next
+         * events are the ones after {@code cursor}.
+         */
+        void onReset(long cursor) throws IOException;
+
+        void onFailure(IOException error);
+    }
+
+    private final MembershipEventRepository membershipEventRepository;
+    private final EventsProperties properties;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ConcurrentSkipListMap<Long, MembershipEvent> recent = new ConcurrentSkipListMap<>();
+    private final ExecutorService dispatcher;
+    private final Counter published;
+
+    // Every event after bufferedAfter up to head is held in recent.
+    private volatile long head;
+    private volatile long bufferedAfter;
+
+    // Only touched by the poller.
+    private int buffered;
+    private long gapSince;
+    private long lastHeartbeat = System.nanoTime();
+
+    @Autowired
+    public MembershipEventStream(
+            MembershipEventRepository membershipEventRepository,
+            MembershipsConfigurationProperties membershipsConfigurationProperties,
+            MeterRegistry meterRegistry) {
+        this.membershipEventRepository = membershipEventRepository;
+        this.properties = membershipsConfigurationProperties.getEvents();
+        AtomicInteger threads = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(properties.getDispatchThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "membership-events-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.published = Counter.builder("memberships.events.published")
+                .description("Membership events read from the outbox and offered to subscribers")
+                .register(meterRegistry);
+        Gauge.builder("memberships.events.subscribers", subscriptions, Set::size)
+                .description("Open membership event subscriptions")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        head = membershipEventRepository.findMaxId();
+        bufferedAfter = head;
+    }
+
+    @PreDestroy
+    public void stop() {
+        dispatcher.shutdownNow();
+    }
+
+    /**
+     * Id of the newest event offered to subscribers.
+     */
+    public long getHead() {
+        return head;
+    }
+
+    /**
+     * Starts sending the events after {@code after}, or only new events when it is {@code null}.
+     */
+    public Subscription subscribe(Long after, Listener listener) {
+        Subscription subscription = new Subscription(listener, after == null ? head : after);
+        subscriptions.add(subscription);
+        dispatch(subscription);
+        return subscription;
+    }
+
+    @Scheduled(fixedDelayString = "#{@membershipsConfigurationProperties.events.pollInterval.toMillis()}")
+    public void scheduledPoll() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            log.warn("Reading membership events failed", e);
+        }
+    }
+
+    /**
+     * Reads committed events past the head and wakes up the subscribers.
+     *
+     * @return the number of new events
+     */
+    public synchronized int poll() {
+        int read = 0;
+        int accepted;
+        do {
+            accepted = accept(membershipEventRepository.findAfter(head, properties.getBatchSize()));
+            read += accepted;
+        } while (accepted == properties.getBatchSize());
+
+        long now = System.nanoTime();
+        if (read == 0 && now - lastHeartbeat < properties.getHeartbeatInterval().toNanos()) {
+            return 0;
+        }
+        lastHeartbeat = now;
+        for (Subscription subscription : subscriptions) {
+            subscription.heartbeatDue = read == 0;
+            dispatch(subscription);
+        }
+        return read;
+    }
+
+    private int accept(List<MembershipEvent> events) {
+        long next = head;
+        int accepted = 0;
+        for (MembershipEvent event : events) {
+            if (event.getId() != next + 1) {
+                long now = System.nanoTime();
+                if (gapSince == 0) {
+                    gapSince = now;
+                }
+                if (now - gapSince < properties.getGapTimeout().toNanos()) {
+                    break;
+                }
+                log.warn("Skipping membership event ids {} to {}, never committed",
+                        next + 1, event.getId() - 1);
+            }
+            gapSince = 0;
+            recent.put(event.getId(), event);
+            next = event.getId();
+            accepted++;
+        }
+        buffered += accepted;
+        while (buffered > properties.getBufferSize()) {
+            // Move the boundary before evicting, so readers that miss the event also see the new boundary.
+            bufferedAfter = recent.firstKey();
+            recent.pollFirstEntry();
+            buffered--;
+        }
+        head = next;
+        published.increment(accepted);
+        return accepted;
+    }
+
+    private void dispatch(Subscription subscription) {
+        if (!subscription.scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            dispatcher.execute(() -> send(subscription));
+        } catch (RejectedExecutionException e) {
+            subscription.scheduled.set(false);
+        }
+    }
+
+    private void send(Subscription subscription) {
+        try {
+            while (subscription.isOpen()) {
+                if (subscription.cursor < bufferedAfter && isPurged(subscription.cursor)) {
+                    long resetTo = head;
+                    subscription.listener.onReset(resetTo);
+                    subscription.cursor = resetTo;
+                    subscription.heartbeatDue = false;
+                }
+                List<MembershipEvent> events = eventsAfter(subscription.cursor);
+                if (events.isEmpty()) {
+                    break;
+                }
+                for (MembershipEvent event : events) {
+                    subscription.listener.onEvent(event);
+                    subscription.cursor = event.getId();
+                }
+                subscription.heartbeatDue = false;
+            }
+            if (subscription.heartbeatDue && subscription.isOpen()) {
+                subscription.heartbeatDue = false;
+                subscription.listener.onHeartbeat();
+            }
+        } catch (IOException e) {
+            subscription.cancel();
+            subscription.listener.onFailure(e);
+        } catch (RuntimeException e) {
+            log.warn("Sending membership events failed, retrying on the next poll", e);
+            return;
+        } finally {
+            subscription.scheduled.set(false);
+        }
+        // Events may have arrived after the last read, while this subscription was still scheduled.
+        if (subscription.isOpen() && subscription.cursor < head) {
+            dispatch(subscription);
+        }
+    }
+
+    /**
+     * Whether events right after {@code cursor} may have been purged from the outbox. Ids rolled back
+     * just before the oldest retained one also count, which costs a needless reset but loses nothing.
+     */
+    private boolean isPurged(long cursor) {
+        Long oldest = membershipEventRepository.findMinId();
+        return oldest == null ? cursor < head : cursor + 1 < oldest;
+    }
+
+    private List<MembershipEvent> eventsAfter(long cursor) {
+        long upTo = head;
+        if (cursor >= upTo) {
+            return Collections.emptyList();
+        }
+        if (cursor >= bufferedAfter) {
+            List<MembershipEvent> events = recent.subMap(cursor, false, upTo, true).values().stream()
+                    .limit(properties.getBatchSize())
+                    .collect(Collectors.toList());
+            if (cursor >= bufferedAfter) {
+                return events;
+            }
+        }
+        return membershipEventRepository.findBetween(cursor, upTo, properties.getBatchSize());
+    }
+
+    /**
+     * A subscriber's position in the stream.
+     */
+    public class Subscription {
+
+        private final Listener listener;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile long cursor;
+        private volatile boolean heartbeatDue;
+
+        private Subscription(Listener listener, long cursor) {
+            this.listener = listener;
+            this.cursor = cursor;
+        }
+
+        public long getCursor() {
+            return cursor;
+        }
+
+        public boolean isOpen() {
+            return subscriptions.contains(this);
+        }
+
+        public void cancel() {
+            subscriptions.remove(this);
+        }
+    }
+}
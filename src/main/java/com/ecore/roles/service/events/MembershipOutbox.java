@@ -0,0 +1,68 @@
+package com.ecore.roles.service.events;
+
+import com.ecore.roles.configuration.MembershipsConfigurationProperties;
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.MembershipEvent;
+import com.ecore.roles.model.Role;
+import com.ecore.roles.repository.MembershipEventRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Records role and membership inserts in the outbox. Callers append inside the inserting
+ * transaction, so {@link MembershipEventStream} only ever sees committed changes; events past the
+ * configured retention are deleted hourly.
+ */
+@Log4j2
+@Component
+public class MembershipOutbox {
+
+    private final MembershipEventRepository membershipEventRepository;
+    private final MembershipsConfigurationProperties membershipsConfigurationProperties;
+
+    @Autowired
+    public MembershipOutbox(
+            MembershipEventRepository membershipEventRepository,
+            MembershipsConfigurationProperties membershipsConfigurationProperties) {
+        this.membershipEventRepository = membershipEventRepository;
+        this.membershipsConfigurationProperties = membershipsConfigurationProperties;
+    }
+
+    public void roleCreated(Role role) {
+        membershipEventRepository.append(List.of(MembershipEvent.of(role)));
+    }
+
+    public void membershipsCreated(Collection<Membership> inserted) {
+        if (!inserted.isEmpty()) {
+            membershipEventRepository.append(inserted.stream()
+                    .map(MembershipEvent::of)
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    @Scheduled(fixedDelay = 1, initialDelay = 1, timeUnit = TimeUnit.HOURS)
+    public void scheduledPurge() {
+        try {
+            purge();
+        } catch (RuntimeException e) {
+            log.warn("Membership event purge failed", e);
+        }
+    }
+
+    public int purge() {
+        Instant cutoff = Instant.now().minus(membershipsConfigurationProperties.getEvents().getRetention());
+        int deleted = membershipEventRepository.deleteCreatedBefore(cutoff);
+        if (deleted > 0) {
+            log.info("Deleted {} membership events created before {}", deleted, cutoff);
+        }
+        return deleted;
+    }
+}
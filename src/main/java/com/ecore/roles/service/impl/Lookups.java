@@ -0,0 +1,71 @@
+package com.ecore.roles.service.impl;
+
+import com.ecore.roles.client.BoundedFanOut;
+import com.ecore.roles.configuration.ClientsConfigurationProperties;
+import com.ecore.roles.exception.InvalidArgumentException;
+import com.ecore.roles.exception.ResourceNotFoundException;
+import com.ecore.roles.model.Lookup;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+final class Lookups {
+
+    private Lookups() {}
+
+    /**
+     * Resolves every distinct id through {@code fetch}, bounded by the configured fan-out and deadline,
+     * and reports one {@link Lookup} per id instead of failing the whole batch.
+     */
+    static <T> CompletableFuture<List<Lookup<T>>> lookupAll(
+            Collection<UUID> ids,
+            Function<UUID, CompletableFuture<T>> fetch,
+            Class<T> resource,
+            ClientsConfigurationProperties clientsConfigurationProperties) {
+        int maxIds = clientsConfigurationProperties.getMaxLookupIds();
+        if (ids.size() > maxIds) {
+            throw new InvalidArgumentException(resource,
+                    format("at most %d ids can be looked up at once", maxIds));
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidArgumentException(resource, "ids must not be null");
+        }
+
+        Map<UUID, CompletableFuture<T>> calls = BoundedFanOut.fetchAll(ids, fetch,
+                clientsConfigurationProperties.getMaxFanOut(),
+                clientsConfigurationProperties.getLookupDeadline());
+        List<CompletableFuture<Lookup<T>>> lookups = calls.entrySet().stream()
+                .map(call -> call.getValue()
+                        .handle((value, error) -> lookup(call.getKey(), value, error, resource)))
+                .collect(Collectors.toList());
+        return CompletableFuture.allOf(lookups.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> lookups.stream()
+                        .map(CompletableFuture::join)
+                        .collect(Collectors.toList()));
+    }
+
+    private static <T> Lookup<T> lookup(UUID id, T value, Throwable error, Class<T> resource) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+        if (cause == null && value != null) {
+            return Lookup.found(id, value);
+        }
+        if (cause == null || cause instanceof WebClientResponseException
+                && ((WebClientResponseException) cause).getStatusCode() == HttpStatus.NOT_FOUND) {
+            return Lookup.failed(id, new ResourceNotFoundException(resource, id));
+        }
+        return Lookup.failed(id, cause);
+    }
+}
@@ -1,20 +1,53 @@
 package com.ecore.roles.service.impl;
 
+import com.ecore.roles.client.BoundedFanOut;
+import com.ecore.roles.client.model.Team;
+import com.ecore.roles.client.model.User;
+import com.ecore.roles.configuration.ClientsConfigurationProperties;
 import com.ecore.roles.exception.InvalidArgumentException;
 import com.ecore.roles.exception.ResourceExistsException;
 import com.ecore.roles.exception.ResourceNotFoundException;
 import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.MembershipAssignment;
+import com.ecore.roles.model.MembershipDetails;
+import com.ecore.roles.model.MembershipKey;
 import com.ecore.roles.model.Role;
+import com.ecore.roles.repository.MembershipCursorRepository;
 import com.ecore.roles.repository.MembershipRepository;
-import com.ecore.roles.repository.RoleRepository;
 import com.ecore.roles.service.MembershipsService;
+import com.ecore.roles.service.TeamsService;
+import com.ecore.roles.service.UsersService;
+import com.ecore.roles.service.events.MembershipOutbox;
+import com.ecore.roles.service.index.MembershipCounts;
+import com.ecore.roles.service.index.MembershipFilter;
+import com.ecore.roles.service.index.MembershipIndex;
+import com.ecore.roles.service.index.RoleCatalogue;
+import com.ecore.roles.service.metrics.DomainMetrics;
 import lombok.NonNull;
 import lombok.extern.log4j.Log4j2;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static java.util.Optional.ofNullable;
 
@@ -22,34 +55,309 @@ import static java.util.Optional.ofNullable;
 @Service
 public class MembershipsServiceImpl implements MembershipsService {
 
+    /**
+     * Bulk requests are validated and inserted in chunks of this size, which bounds the IN lists of the
+     * set-based lookups and matches {@code hibernate.jdbc.batch_size}.
+     */
+    static final int BULK_CHUNK_SIZE = 500;
+
+    private static final String MEMBERSHIP_UNIQUE_KEY = "uk_membership_team_user";
+
     private final MembershipRepository membershipRepository;
-    private final RoleRepository roleRepository;
+    private final RoleCatalogue roleCatalogue;
+    private final MembershipCursorRepository membershipCursorRepository;
+    private final MembershipIndex membershipIndex;
+    private final MembershipFilter membershipFilter;
+    private final MembershipCounts membershipCounts;
+    private final MembershipOutbox membershipOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final DomainMetrics domainMetrics;
+    private final UsersService usersService;
+    private final TeamsService teamsService;
+    private final ClientsConfigurationProperties clientsConfigurationProperties;
 
     @Autowired
     public MembershipsServiceImpl(
             MembershipRepository membershipRepository,
-            RoleRepository roleRepository) {
+            RoleCatalogue roleCatalogue,
+            MembershipCursorRepository membershipCursorRepository,
+            MembershipIndex membershipIndex,
+            MembershipFilter membershipFilter,
+            MembershipCounts membershipCounts,
+            MembershipOutbox membershipOutbox,
+            TransactionTemplate transactionTemplate,
+            DomainMetrics domainMetrics,
+            UsersService usersService,
+            TeamsService teamsService,
+            ClientsConfigurationProperties clientsConfigurationProperties) {
         this.membershipRepository = membershipRepository;
-        this.roleRepository = roleRepository;
+        this.roleCatalogue = roleCatalogue;
+        this.membershipCursorRepository = membershipCursorRepository;
+        this.membershipIndex = membershipIndex;
+        this.membershipFilter = membershipFilter;
+        this.membershipCounts = membershipCounts;
+        this.membershipOutbox = membershipOutbox;
+        this.transactionTemplate = transactionTemplate;
+        this.domainMetrics = domainMetrics;
+        this.usersService = usersService;
+        this.teamsService = teamsService;
+        this.clientsConfigurationProperties = clientsConfigurationProperties;
     }
 
     @Override
     public Membership assignRoleToMembership(@NonNull Membership m) {
+        try {
+            Membership saved = assign(m);
+            domainMetrics.membershipsCreated(1);
+            return saved;
+        } catch (RuntimeException e) {
+            domainMetrics.membershipRejected(e);
+            throw e;
+        }
+    }
 
+    private Membership assign(Membership m) {
         UUID roleId = ofNullable(m.getRole()).map(Role::getId)
                 .orElseThrow(() -> new InvalidArgumentException(Role.class));
 
-        if (membershipRepository.findByUserIdAndTeamId(m.getUserId(), m.getTeamId())
-                .isPresent()) {
-            throw new ResourceExistsException(Membership.class);
+        if (roleCatalogue.findById(roleId).isEmpty()) {
+            domainMetrics.roleNotFound();
+            throw new ResourceNotFoundException(Role.class, roleId);
+        }
+        // No lookup first: the unique key on (team_id, user_id) settles concurrent duplicates atomically.
+        Membership saved;
+        try {
+            saved = insert(m);
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicateMembership(e)) {
+                throw new ResourceExistsException(Membership.class);
+            }
+            throw e;
+        }
+        membershipIndex.put(saved);
+        membershipFilter.put(saved);
+        return saved;
+    }
+
+    /**
+     * Inserts one membership, counting and recording it in the same transaction.
+     */
+    private Membership insert(Membership m) {
+        return transactionTemplate.execute(status -> {
+            Membership saved = membershipRepository.saveAndFlush(m);
+            membershipCounts.add(List.of(saved));
+            membershipOutbox.membershipsCreated(List.of(saved));
+            return saved;
+        });
+    }
+
+    private static boolean isDuplicateMembership(DataIntegrityViolationException e) {
+        if (!(e.getCause() instanceof ConstraintViolationException)) {
+            return false;
+        }
+        // Not-null and foreign key violations may come without a constraint name; only the unique key
+        // means the pair already exists.
+        String constraint = ((ConstraintViolationException) e.getCause()).getConstraintName();
+        return constraint != null && constraint.toLowerCase(Locale.ROOT).contains(MEMBERSHIP_UNIQUE_KEY);
+    }
+
+    @Override
+    public List<MembershipAssignment> assignRolesToMemberships(@NonNull List<Membership> memberships) {
+        MembershipAssignment[] results = new MembershipAssignment[memberships.size()];
+        for (int from = 0; from < memberships.size(); from += BULK_CHUNK_SIZE) {
+            int to = Math.min(from + BULK_CHUNK_SIZE, memberships.size());
+            assignChunk(memberships, from, to, results);
+        }
+        int created = 0;
+        for (MembershipAssignment result : results) {
+            if (result.isCreated()) {
+                created++;
+            } else {
+                domainMetrics.membershipRejected(result.getError());
+            }
         }
+        domainMetrics.membershipsCreated(created);
+        return Arrays.asList(results);
+    }
 
-        roleRepository.findById(roleId).orElseThrow(() -> new ResourceNotFoundException(Role.class, roleId));
-        return membershipRepository.save(m);
+    private void assignChunk(List<Membership> memberships, int from, int to, MembershipAssignment[] results) {
+        Set<UUID> roleIds = new HashSet<>();
+        Set<UUID> userIds = new HashSet<>();
+        Set<UUID> teamIds = new HashSet<>();
+        Set<MembershipKey> candidates = new HashSet<>();
+        for (int i = from; i < to; i++) {
+            Membership m = memberships.get(i);
+            if (m == null || m.getUserId() == null || m.getTeamId() == null) {
+                results[i] = MembershipAssignment.failed(i, new InvalidArgumentException(Membership.class));
+            } else if (m.getRole() == null || m.getRole().getId() == null) {
+                results[i] = MembershipAssignment.failed(i, new InvalidArgumentException(Role.class));
+            } else {
+                roleIds.add(m.getRole().getId());
+                // Pairs the filter rules out are new for certain and stay out of the existence query.
+                if (membershipFilter.mightContain(m.getUserId(), m.getTeamId())) {
+                    candidates.add(MembershipKey.of(m));
+                    userIds.add(m.getUserId());
+                    teamIds.add(m.getTeamId());
+                }
+            }
+        }
+        if (roleIds.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, Role> roles = roleCatalogue.findAllById(roleIds);
+        Set<MembershipKey> taken = new HashSet<>();
+        if (!candidates.isEmpty()) {
+            membershipRepository.findByUserIdInAndTeamIdIn(userIds, teamIds)
+                    .forEach(m -> taken.add(MembershipKey.of(m)));
+            candidates.removeAll(taken);
+            membershipFilter.falsePositives(candidates.size());
+        }
+
+        Map<Integer, Membership> accepted = new HashMap<>();
+        for (int i = from; i < to; i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            Membership m = memberships.get(i);
+            Role role = roles.get(m.getRole().getId());
+            if (role == null) {
+                domainMetrics.roleNotFound();
+                results[i] = MembershipAssignment.failed(i,
+                        new ResourceNotFoundException(Role.class, m.getRole().getId()));
+            } else if (!taken.add(MembershipKey.of(m))) {
+                results[i] = MembershipAssignment.failed(i, new ResourceExistsException(Membership.class));
+            } else {
+                m.setId(null);
+                m.setRole(role);
+                accepted.put(i, m);
+            }
+        }
+
+        saveChunk(accepted, results);
+    }
+
+    private void saveChunk(Map<Integer, Membership> accepted, MembershipAssignment[] results) {
+        List<Integer> indexes = new ArrayList<>(accepted.keySet());
+        try {
+            List<Membership> saved = transactionTemplate.execute(status -> {
+                List<Membership> inserted = membershipRepository.saveAllAndFlush(
+                        indexes.stream().map(accepted::get).collect(Collectors.toList()));
+                membershipCounts.add(inserted);
+                membershipOutbox.membershipsCreated(inserted);
+                return inserted;
+            });
+            for (int i = 0; i < indexes.size(); i++) {
+                membershipIndex.put(saved.get(i));
+                membershipFilter.put(saved.get(i));
+                results[indexes.get(i)] = MembershipAssignment.created(indexes.get(i), saved.get(i));
+            }
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent writer inserted one of the pairs after the lookup; settle the chunk item by item.
+            log.warn("Bulk membership insert conflicted, retrying {} items individually", indexes.size());
+            for (Integer index : indexes) {
+                Membership m = accepted.get(index);
+                m.setId(null);
+                try {
+                    Membership saved = insert(m);
+                    membershipIndex.put(saved);
+                    membershipFilter.put(saved);
+                    results[index] = MembershipAssignment.created(index, saved);
+                } catch (DataIntegrityViolationException conflict) {
+                    results[index] = MembershipAssignment.failed(index, isDuplicateMembership(conflict)
+                            ? new ResourceExistsException(Membership.class)
+                            : conflict);
+                }
+            }
+        }
     }
 
     @Override
     public List<Membership> getMemberships(@NonNull UUID rid) {
         return membershipRepository.findByRoleId(rid);
     }
+
+    @Override
+    public List<Membership> getMemberships(@NonNull UUID rid, UUID after, int limit) {
+        PageRequest page = PageRequest.ofSize(limit);
+        return after == null
+                ? membershipRepository.findByRoleIdOrderByIdAsc(rid, page)
+                : membershipRepository.findByRoleIdAndIdGreaterThanOrderByIdAsc(rid, after, page);
+    }
+
+    @Override
+    public List<Membership> getMembershipsByUser(@NonNull UUID userId, UUID after, int limit) {
+        PageRequest page = PageRequest.ofSize(limit);
+        return after == null
+                ? membershipRepository.findByUserIdOrderByIdAsc(userId, page)
+                : membershipRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(userId, after, page);
+    }
+
+    @Override
+    public List<Membership> getMembershipsByTeam(@NonNull UUID teamId, UUID after, int limit) {
+        PageRequest page = PageRequest.ofSize(limit);
+        return after == null
+                ? membershipRepository.findByTeamIdOrderByIdAsc(teamId, page)
+                : membershipRepository.findByTeamIdAndIdGreaterThanOrderByIdAsc(teamId, after, page);
+    }
+
+    @Override
+    public Map<UUID, Long> countMembershipsByRole() {
+        return membershipCounts.byRole();
+    }
+
+    @Override
+    public Map<UUID, Long> countMembershipsByTeam(@NonNull Collection<UUID> teamIds) {
+        return membershipCounts.byTeam(teamIds);
+    }
+
+    @Override
+    public void streamMemberships(@NonNull UUID rid, @NonNull Consumer<Membership> consumer) {
+        membershipCursorRepository.streamByRoleId(rid, consumer);
+    }
+
+    @Override
+    public CompletableFuture<List<MembershipDetails>> getMembershipDetails(
+            @NonNull UUID rid,
+            UUID after,
+            int limit) {
+        // Expanding one page at a time keeps the upstream lookups per request bounded by the page size.
+        List<Membership> memberships = getMemberships(rid, after, limit);
+        Set<UUID> userIds = new LinkedHashSet<>();
+        Set<UUID> teamIds = new LinkedHashSet<>();
+        for (Membership m : memberships) {
+            userIds.add(m.getUserId());
+            teamIds.add(m.getTeamId());
+        }
+
+        int fanOut = clientsConfigurationProperties.getMaxFanOut();
+        CompletableFuture<Map<UUID, User>> users = fetchAll(userIds, usersService::getUserAsync, fanOut);
+        CompletableFuture<Map<UUID, Team>> teams = fetchAll(teamIds, teamsService::getTeamAsync, fanOut);
+        return users.thenCombine(teams, (usersById, teamsById) -> memberships.stream()
+                .map(m -> MembershipDetails.of(m, usersById.get(m.getUserId()), teamsById.get(m.getTeamId())))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Looks every id up once, with at most {@code fanOut} calls in flight. Ids the upstream cannot
+     * resolve are left out of the result rather than failing the whole request.
+     */
+    private static <V> CompletableFuture<Map<UUID, V>> fetchAll(
+            Collection<UUID> ids,
+            Function<UUID, CompletableFuture<V>> fetch,
+            int fanOut) {
+        Map<UUID, V> results = new ConcurrentHashMap<>();
+        CompletableFuture<?>[] calls = BoundedFanOut.fetchAll(ids, fetch, fanOut).entrySet().stream()
+                .map(call -> call.getValue().handle((value, error) -> {
+                    if (value != null) {
+                        results.put(call.getKey(), value);
+                    } else if (error != null) {
+                        log.warn("Could not resolve {} for membership details: {}", call.getKey(),
+                                error.getMessage());
+                    }
+                    return null;
+                }))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(calls).thenApply(ignored -> results);
+    }
 }
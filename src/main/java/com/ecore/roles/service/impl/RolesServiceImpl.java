@@ -1,16 +1,27 @@
 package com.ecore.roles.service.impl;
 
+import com.ecore.roles.client.model.Team;
 import com.ecore.roles.exception.ResourceExistsException;
 import com.ecore.roles.exception.ResourceNotFoundException;
+import com.ecore.roles.exception.UpstreamUnavailableException;
+import com.ecore.roles.model.Membership;
 import com.ecore.roles.model.Role;
 import com.ecore.roles.repository.MembershipRepository;
 import com.ecore.roles.repository.RoleRepository;
 import com.ecore.roles.service.MembershipsService;
 import com.ecore.roles.service.RolesService;
+import com.ecore.roles.service.TeamsService;
+import com.ecore.roles.service.events.MembershipOutbox;
+import com.ecore.roles.service.index.MembershipIndex;
+import com.ecore.roles.service.index.RoleCatalogue;
+import com.ecore.roles.service.metrics.DomainMetrics;
 import lombok.NonNull;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
 
 import java.util.List;
 import java.util.UUID;
@@ -24,38 +35,99 @@ public class RolesServiceImpl implements RolesService {
     private final RoleRepository roleRepository;
     private final MembershipRepository membershipRepository;
     private final MembershipsService membershipsService;
+    private final MembershipIndex membershipIndex;
+    private final RoleCatalogue roleCatalogue;
+    private final TeamsService teamsService;
+    private final MembershipOutbox membershipOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final DomainMetrics domainMetrics;
 
     @Autowired
     public RolesServiceImpl(
             RoleRepository roleRepository,
             MembershipRepository membershipRepository,
-            MembershipsService membershipsService) {
+            MembershipsService membershipsService,
+            MembershipIndex membershipIndex,
+            RoleCatalogue roleCatalogue,
+            TeamsService teamsService,
+            MembershipOutbox membershipOutbox,
+            TransactionTemplate transactionTemplate,
+            DomainMetrics domainMetrics) {
         this.roleRepository = roleRepository;
         this.membershipRepository = membershipRepository;
         this.membershipsService = membershipsService;
+        this.membershipIndex = membershipIndex;
+        this.roleCatalogue = roleCatalogue;
+        this.teamsService = teamsService;
+        this.membershipOutbox = membershipOutbox;
+        this.transactionTemplate = transactionTemplate;
+        this.domainMetrics = domainMetrics;
     }
 
     @Override
     public Role CreateRole(@NonNull Role r) {
+        // Writes are rare, so the uniqueness check stays on the table rather than the catalogue.
         if (roleRepository.findByName(r.getName()).isPresent()) {
             throw new ResourceExistsException(Role.class);
         }
-        return roleRepository.save(r);
+        Role saved = transactionTemplate.execute(status -> {
+            Role inserted = roleRepository.save(r);
+            membershipOutbox.roleCreated(inserted);
+            return inserted;
+        });
+        roleCatalogue.put(saved);
+        return saved;
     }
 
     @Override
     public Role GetRole(@NonNull UUID rid) {
-        return roleRepository.findById(rid)
-                .orElseThrow(() -> new ResourceNotFoundException(Role.class, rid));
+        return roleCatalogue.findById(rid)
+                .orElseThrow(() -> {
+                    domainMetrics.roleNotFound();
+                    return new ResourceNotFoundException(Role.class, rid);
+                });
+    }
+
+    @Override
+    public Role GetRole(@NonNull UUID userId, @NonNull UUID teamId) {
+        UUID roleId = membershipIndex.getRoleId(userId, teamId);
+        if (roleId != null) {
+            return GetRole(roleId);
+        }
+        // Only misses pay for the upstream call, to tell an unknown team from a user without a role.
+        if (isUnknownTeam(teamId)) {
+            throw new ResourceNotFoundException(Team.class, teamId);
+        }
+        throw new ResourceNotFoundException(Membership.class);
     }
 
     @Override
     public List<Role> GetRoles() {
-        return roleRepository.findAll();
+        return roleCatalogue.findAll();
+    }
+
+    @Override
+    public List<Role> GetRoles(UUID after, int limit) {
+        return roleCatalogue.findAll(after, limit);
+    }
+
+    /**
+     * The membership is missing either way, so a Teams service that cannot answer only costs the more
+     * precise message, not the lookup.
+     */
+    private boolean isUnknownTeam(UUID teamId) {
+        try {
+            return teamsService.getTeam(teamId) == null;
+        } catch (HttpClientErrorException.NotFound e) {
+            return true;
+        } catch (UpstreamUnavailableException | RestClientException e) {
+            log.debug("Could not check whether team {} exists", teamId, e);
+            return false;
+        }
     }
 
     private Role getDefaultRole() {
-        return roleRepository.findByName(DEFAULT_ROLE)
+        return roleCatalogue.findByName(DEFAULT_ROLE)
                 .orElseThrow(() -> new IllegalStateException("Default role is not configured"));
     }
 }
@@ -1,29 +1,140 @@
 package com.ecore.roles.service.impl;
 
 import com.ecore.roles.client.TeamsClient;
+import com.ecore.roles.client.cache.UpstreamCache;
+import com.ecore.roles.client.cache.UpstreamCacheFactory;
 import com.ecore.roles.client.model.Team;
+import com.ecore.roles.configuration.ClientsConfigurationProperties;
+import com.ecore.roles.model.Lookup;
 import com.ecore.roles.service.TeamsService;
+import com.ecore.roles.service.index.TeamDirectory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class TeamsServiceImpl implements TeamsService {
 
+    private static final String ALL_TEAMS = "all";
+
     private final TeamsClient teamsClient;
+    private final ClientsConfigurationProperties clientsConfigurationProperties;
+    private final TeamDirectory teamDirectory;
+    private final UpstreamCache<UUID, Team> teamCache;
+    private final UpstreamCache<String, List<Team>> teamsCache;
 
     @Autowired
-    public TeamsServiceImpl(TeamsClient teamsClient) {
+    public TeamsServiceImpl(
+            TeamsClient teamsClient,
+            TeamDirectory teamDirectory,
+            UpstreamCacheFactory upstreamCacheFactory,
+            ClientsConfigurationProperties clientsConfigurationProperties) {
         this.teamsClient = teamsClient;
+        this.clientsConfigurationProperties = clientsConfigurationProperties;
+        this.teamDirectory = teamDirectory;
+        this.teamCache = upstreamCacheFactory.create("teams",
+                clientsConfigurationProperties.getTeamsCache(),
+                id -> teamsClient.getTeamAsync(id).thenApply(ResponseEntity::getBody));
+        this.teamsCache = upstreamCacheFactory.create("teams.all",
+                clientsConfigurationProperties.getTeamsCache(),
+                key -> teamsClient.getTeamsAsync()
+                        .thenApply(ResponseEntity::getBody)
+                        .thenApply(this::cacheEach));
     }
 
     public Team getTeam(UUID id) {
-        return teamsClient.getTeam(id).getBody();
+        Team replicated = teamDirectory.getTeam(id);
+        if (replicated != null) {
+            return replicated;
+        }
+        return teamCache.get(id, key -> teamsClient.getTeam(key).getBody());
     }
 
     public List<Team> getTeams() {
-        return teamsClient.getTeams().getBody();
+        return teamsCache.get(ALL_TEAMS, key -> cacheEach(teamsClient.getTeams().getBody()));
+    }
+
+    public CompletableFuture<Team> getTeamAsync(UUID id) {
+        Team replicated = teamDirectory.getTeam(id);
+        if (replicated != null) {
+            return CompletableFuture.completedFuture(replicated);
+        }
+        Team cached = teamCache.getIfPresent(id);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return teamsClient.getTeamAsync(id)
+                .thenApply(ResponseEntity::getBody)
+                .thenApply(team -> {
+                    if (team != null) {
+                        teamCache.put(id, team);
+                    }
+                    return team;
+                });
+    }
+
+    public CompletableFuture<List<Team>> getTeamsAsync() {
+        List<Team> cached = teamsCache.getIfPresent(ALL_TEAMS);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return teamsClient.getTeamsAsync()
+                .thenApply(ResponseEntity::getBody)
+                .thenApply(this::cacheEach)
+                .thenApply(teams -> {
+                    if (teams != null) {
+                        teamsCache.put(ALL_TEAMS, teams);
+                    }
+                    return teams;
+                });
+    }
+
+    public boolean isTeamMember(UUID teamId, UUID userId) {
+        if (teamDirectory.getTeam(teamId) != null) {
+            return teamDirectory.isMember(teamId, userId);
+        }
+        // A team created since the last sync is not replicated yet; ask the Teams service.
+        Team team = getTeam(teamId);
+        return team != null
+                && (userId.equals(team.getTeamLeadId())
+                        || team.getTeamMemberIds() != null && team.getTeamMemberIds().contains(userId));
+    }
+
+    public Set<UUID> getTeamIds(UUID userId) {
+        return teamDirectory.getTeamIds(userId);
+    }
+
+    /**
+     * Replicated and cached teams resolve immediately; only the misses are sent upstream, concurrently.
+     */
+    public CompletableFuture<List<Lookup<Team>>> lookupTeams(Collection<UUID> ids) {
+        return Lookups.lookupAll(ids, this::getTeamAsync, Team.class, clientsConfigurationProperties);
+    }
+
+    public List<Team> getCachedTeams() {
+        Map<UUID, Team> teams = new LinkedHashMap<>();
+        teamCache.values().forEach(team -> teams.put(team.getId(), team));
+        teamDirectory.getTeams().forEach(team -> teams.put(team.getId(), team));
+        return new ArrayList<>(teams.values());
+    }
+
+    public void cacheTeams(Collection<Team> teams) {
+        teams.forEach(team -> teamCache.put(team.getId(), team));
+    }
+
+    private List<Team> cacheEach(List<Team> teams) {
+        if (teams != null) {
+            teams.forEach(team -> teamCache.put(team.getId(), team));
+        }
+        return teams;
     }
 }
@@ -1,29 +1,107 @@
 package com.ecore.roles.service.impl;
 
 import com.ecore.roles.client.UsersClient;
+import com.ecore.roles.client.cache.UpstreamCache;
+import com.ecore.roles.client.cache.UpstreamCacheFactory;
 import com.ecore.roles.client.model.User;
+import com.ecore.roles.configuration.ClientsConfigurationProperties;
+import com.ecore.roles.model.Lookup;
 import com.ecore.roles.service.UsersService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class UsersServiceImpl implements UsersService {
 
+    private static final String ALL_USERS = "all";
+
     private final UsersClient usersClient;
+    private final ClientsConfigurationProperties clientsConfigurationProperties;
+    private final UpstreamCache<UUID, User> userCache;
+    private final UpstreamCache<String, List<User>> usersCache;
 
     @Autowired
-    public UsersServiceImpl(UsersClient usersClient) {
+    public UsersServiceImpl(
+            UsersClient usersClient,
+            UpstreamCacheFactory upstreamCacheFactory,
+            ClientsConfigurationProperties clientsConfigurationProperties) {
         this.usersClient = usersClient;
+        this.clientsConfigurationProperties = clientsConfigurationProperties;
+        this.userCache = upstreamCacheFactory.create("users",
+                clientsConfigurationProperties.getUsersCache(),
+                id -> usersClient.getUserAsync(id).thenApply(ResponseEntity::getBody));
+        this.usersCache = upstreamCacheFactory.create("users.all",
+                clientsConfigurationProperties.getUsersCache(),
+                key -> usersClient.getUsersAsync()
+                        .thenApply(ResponseEntity::getBody)
+                        .thenApply(this::cacheEach));
     }
 
     public User getUser(UUID id) {
-        return usersClient.getUser(id).getBody();
+        return userCache.get(id, key -> usersClient.getUser(key).getBody());
     }
 
     public List<User> getUsers() {
-        return usersClient.getUsers().getBody();
+        return usersCache.get(ALL_USERS, key -> cacheEach(usersClient.getUsers().getBody()));
+    }
+
+    public CompletableFuture<User> getUserAsync(UUID id) {
+        User cached = userCache.getIfPresent(id);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return usersClient.getUserAsync(id)
+                .thenApply(ResponseEntity::getBody)
+                .thenApply(user -> {
+                    if (user != null) {
+                        userCache.put(id, user);
+                    }
+                    return user;
+                });
+    }
+
+    public CompletableFuture<List<User>> getUsersAsync() {
+        List<User> cached = usersCache.getIfPresent(ALL_USERS);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return usersClient.getUsersAsync()
+                .thenApply(ResponseEntity::getBody)
+                .thenApply(this::cacheEach)
+                .thenApply(users -> {
+                    if (users != null) {
+                        usersCache.put(ALL_USERS, users);
+                    }
+                    return users;
+                });
+    }
+
+    /**
+     * Cache hits resolve immediately; only the misses are sent upstream, concurrently.
+     */
+    public CompletableFuture<List<Lookup<User>>> lookupUsers(Collection<UUID> ids) {
+        return Lookups.lookupAll(ids, this::getUserAsync, User.class, clientsConfigurationProperties);
+    }
+
+    public List<User> getCachedUsers() {
+        return new ArrayList<>(userCache.values());
+    }
+
+    public void cacheUsers(Collection<User> users) {
+        users.forEach(user -> userCache.put(user.getId(), user));
+    }
+
+    private List<User> cacheEach(List<User> users) {
+        if (users != null) {
+            users.forEach(user -> userCache.put(user.getId(), user));
+        }
+        return users;
     }
 }
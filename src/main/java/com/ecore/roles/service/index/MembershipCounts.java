@@ -0,0 +1,94 @@
+package com.ecore.roles.service.index;
+
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.repository.MembershipCountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Membership counts per role and per team, maintained alongside the membership table so dashboards
+ * read one row per role or team instead of counting memberships. Callers add inserted memberships
+ * inside the inserting transaction; a background job recounts from the membership table and repairs
+ * any drift, such as rows removed outside the API.
+ */
+@Log4j2
+@Component
+public class MembershipCounts {
+
+    private final MembershipCountRepository membershipCountRepository;
+    private final RoleCatalogue roleCatalogue;
+    private final Counter repaired;
+
+    @Autowired
+    public MembershipCounts(
+            MembershipCountRepository membershipCountRepository,
+            RoleCatalogue roleCatalogue,
+            MeterRegistry meterRegistry) {
+        this.membershipCountRepository = membershipCountRepository;
+        this.roleCatalogue = roleCatalogue;
+        this.repaired = Counter.builder("memberships.counts.repaired")
+                .description("Role and team membership counts corrected by reconciliation")
+                .register(meterRegistry);
+    }
+
+    public void add(Collection<Membership> inserted) {
+        Map<UUID, Integer> byRole = new HashMap<>();
+        Map<UUID, Integer> byTeam = new HashMap<>();
+        for (Membership m : inserted) {
+            byRole.merge(m.getRole().getId(), 1, Integer::sum);
+            byTeam.merge(m.getTeamId(), 1, Integer::sum);
+        }
+        if (!byRole.isEmpty()) {
+            membershipCountRepository.increment(byRole, byTeam);
+        }
+    }
+
+    /**
+     * Counts for every known role, zero for roles without memberships.
+     */
+    public Map<UUID, Long> byRole() {
+        Map<UUID, Long> counts = new LinkedHashMap<>();
+        roleCatalogue.findAll().forEach(role -> counts.put(role.getId(), 0L));
+        counts.putAll(membershipCountRepository.findAllByRole());
+        return counts;
+    }
+
+    /**
+     * Counts for the given teams, zero for teams without memberships.
+     */
+    public Map<UUID, Long> byTeam(Collection<UUID> teamIds) {
+        Map<UUID, Long> counts = new LinkedHashMap<>();
+        teamIds.forEach(teamId -> counts.put(teamId, 0L));
+        counts.putAll(membershipCountRepository.findByTeamIdIn(teamIds));
+        return counts;
+    }
+
+    @Scheduled(fixedDelay = 15, initialDelay = 15, timeUnit = TimeUnit.MINUTES)
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.warn("Membership count reconciliation failed", e);
+        }
+    }
+
+    public int reconcile() {
+        int corrected = membershipCountRepository.reconcile();
+        if (corrected > 0) {
+            repaired.increment(corrected);
+            log.warn("Membership count reconciliation repaired {} counts", corrected);
+        }
+        return corrected;
+    }
+}
@@ -0,0 +1,213 @@
+package com.ecore.roles.service.index;
+
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.repository.MembershipCursorRepository;
+import com.ecore.roles.repository.MembershipRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over the stored (userId, teamId) pairs. {@link #mightContain} answering {@code false}
+ * means the pair is definitely not in the membership table, so callers can skip the existence query;
+ * {@code true} only means it may be.
+ * <p>
+ * The filter is built from the membership table at startup, updated once each membership write is
+ * committed and rebuilt periodically, which resizes it for the current table and drops the error
+ * accumulated by growth. {@code memberships.filter.false.positive.rate} is the rate expected from
+ * the current fill; comparing {@code memberships.filter.false.positives} with the
+ * {@code absent} checks gives the observed one.
+ */
+@Log4j2
+@Component
+public class MembershipFilter {
+
+    static final double FALSE_POSITIVE_RATE = 0.01;
+    // Head room for inserts between rebuilds: the filter is sized for twice the rows it is built from.
+    static final int GROWTH_FACTOR = 2;
+    static final long MIN_CAPACITY = 1024;
+
+    private final MembershipRepository membershipRepository;
+    private final MembershipCursorRepository membershipCursorRepository;
+    private final Counter absent;
+    private final Counter maybePresent;
+    private final Counter falsePositives;
+    private volatile Bits bits = new Bits(MIN_CAPACITY);
+    private volatile Bits building;
+
+    @Autowired
+    public MembershipFilter(
+            MembershipRepository membershipRepository,
+            MembershipCursorRepository membershipCursorRepository,
+            MeterRegistry meterRegistry) {
+        this.membershipRepository = membershipRepository;
+        this.membershipCursorRepository = membershipCursorRepository;
+        this.absent = checks(meterRegistry, "absent");
+        this.maybePresent = checks(meterRegistry, "maybe_present");
+        this.falsePositives = Counter.builder("memberships.filter.false.positives")
+                .description("Pairs the membership filter reported as maybe present that were not stored")
+                .register(meterRegistry);
+        Gauge.builder("memberships.filter.false.positive.rate", this,
+                MembershipFilter::expectedFalsePositiveRate)
+                .description("False positive rate expected from the membership filter's current fill")
+                .register(meterRegistry);
+        Gauge.builder("memberships.filter.memory", this, MembershipFilter::sizeInBytes)
+                .description("Memory held by the membership filter's bit array")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public synchronized void rebuild() {
+        Bits rebuilt = new Bits(Math.max(MIN_CAPACITY, membershipRepository.count() * GROWTH_FACTOR));
+        // Inserts committed while the table is streamed go to both filters, so none is lost in the swap.
+        building = rebuilt;
+        try {
+            membershipCursorRepository.streamAll(m -> rebuilt.add(m.getUserId(), m.getTeamId()));
+            bits = rebuilt;
+        } finally {
+            building = null;
+        }
+        log.info("Membership filter built for {} pairs in {} bytes", rebuilt.insertions.get(),
+                rebuilt.sizeInBytes());
+    }
+
+    @Scheduled(fixedDelay = 10, initialDelay = 10, timeUnit = TimeUnit.MINUTES)
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Membership filter rebuild failed, keeping the current filter", e);
+        }
+    }
+
+    public boolean mightContain(UUID userId, UUID teamId) {
+        if (bits.mightContain(userId, teamId)) {
+            maybePresent.increment();
+            return true;
+        }
+        absent.increment();
+        return false;
+    }
+
+    public void put(Membership membership) {
+        UUID userId = membership.getUserId();
+        UUID teamId = membership.getTeamId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(userId, teamId);
+                }
+            });
+        } else {
+            add(userId, teamId);
+        }
+    }
+
+    /**
+     * Records pairs reported as maybe present that the existence query did not find.
+     */
+    public void falsePositives(int count) {
+        falsePositives.increment(count);
+    }
+
+    public double expectedFalsePositiveRate() {
+        return bits.expectedFalsePositiveRate();
+    }
+
+    public long sizeInBytes() {
+        return bits.sizeInBytes();
+    }
+
+    private void add(UUID userId, UUID teamId) {
+        Bits rebuilding = building;
+        bits.add(userId, teamId);
+        if (rebuilding != null) {
+            rebuilding.add(userId, teamId);
+        }
+    }
+
+    private static Counter checks(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("memberships.filter.checks")
+                .description("Membership filter lookups, by answer")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static final class Bits {
+
+        private final AtomicLongArray words;
+        private final long size;
+        private final int hashes;
+        private final AtomicLong insertions = new AtomicLong();
+
+        private Bits(long capacity) {
+            long optimal = (long) Math.ceil(
+                    -capacity * Math.log(FALSE_POSITIVE_RATE) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray(Math.toIntExact((optimal + 63) / 64));
+            this.size = words.length() * 64L;
+            this.hashes = Math.max(1, (int) Math.round((double) size / capacity * Math.log(2)));
+        }
+
+        private void add(UUID userId, UUID teamId) {
+            long h1 = hash(userId, teamId);
+            long h2 = mix(h1 ^ 0x9e3779b97f4a7c15L) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, size);
+                long mask = 1L << bit;
+                words.getAndAccumulate((int) (bit >>> 6), mask, (word, m) -> word | m);
+            }
+            insertions.incrementAndGet();
+        }
+
+        private boolean mightContain(UUID userId, UUID teamId) {
+            long h1 = hash(userId, teamId);
+            long h2 = mix(h1 ^ 0x9e3779b97f4a7c15L) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, size);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private double expectedFalsePositiveRate() {
+            return Math.pow(1 - Math.exp(-(double) hashes * insertions.get() / size), hashes);
+        }
+
+        private long sizeInBytes() {
+            return words.length() * 8L;
+        }
+
+        private static long hash(UUID userId, UUID teamId) {
+            long h = mix(userId.getMostSignificantBits());
+            h = mix(h ^ userId.getLeastSignificantBits());
+            h = mix(h ^ teamId.getMostSignificantBits());
+            return mix(h ^ teamId.getLeastSignificantBits());
+        }
+
+        // MurmurHash3 fmix64 finaliser.
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.ecore.roles.service.index;
+
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.MembershipKey;
+import com.ecore.roles.repository.MembershipCursorRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory map of (userId, teamId) to roleId, answering "which role does user U have in team T"
+ * without touching the database. It is loaded from the membership table at startup and updated on
+ * every membership write once that write is committed.
+ */
+@Log4j2
+@Component
+public class MembershipIndex {
+
+    private final MembershipCursorRepository membershipCursorRepository;
+    private volatile Map<MembershipKey, UUID> roleIds = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> canonicalRoleIds = new ConcurrentHashMap<>();
+
+    @Autowired
+    public MembershipIndex(MembershipCursorRepository membershipCursorRepository) {
+        this.membershipCursorRepository = membershipCursorRepository;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        Map<MembershipKey, UUID> loaded = new ConcurrentHashMap<>();
+        membershipCursorRepository
+                .streamAll(m -> loaded.put(MembershipKey.of(m), canonical(m.getRole().getId())));
+        roleIds = loaded;
+        log.info("Membership index loaded with {} entries", loaded.size());
+    }
+
+    public UUID getRoleId(UUID userId, UUID teamId) {
+        return roleIds.get(MembershipKey.of(userId, teamId));
+    }
+
+    public void put(Membership membership) {
+        MembershipKey key = MembershipKey.of(membership);
+        UUID roleId = canonical(membership.getRole().getId());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    roleIds.put(key, roleId);
+                }
+            });
+        } else {
+            roleIds.put(key, roleId);
+        }
+    }
+
+    public int size() {
+        return roleIds.size();
+    }
+
+    // Role ids repeat across millions of entries; sharing one instance per role keeps the map small.
+    private UUID canonical(UUID roleId) {
+        return canonicalRoleIds.computeIfAbsent(roleId, id -> id);
+    }
+}
@@ -0,0 +1,119 @@
+package com.ecore.roles.service.index;
+
+import com.ecore.roles.model.Role;
+import com.ecore.roles.repository.RoleRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * In-process copy of the role table, indexed by id and by name. The table holds a handful of rows
+ * that almost never change, so it is loaded once at startup and every read is served from an
+ * immutable snapshot; a created role swaps in a new snapshot once its transaction commits.
+ */
+@Log4j2
+@Component
+public class RoleCatalogue {
+
+    // Role ids are stored as text, so keep the same order the database uses for cursor pages.
+    private static final Comparator<UUID> ID_ORDER = Comparator.comparing(UUID::toString);
+
+    private final RoleRepository roleRepository;
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyList());
+
+    @Autowired
+    public RoleCatalogue(RoleRepository roleRepository) {
+        this.roleRepository = roleRepository;
+    }
+
+    @PostConstruct
+    public synchronized void reload() {
+        snapshot = new Snapshot(roleRepository.findAll());
+        log.info("Role catalogue loaded with {} roles", snapshot.byId.size());
+    }
+
+    public Optional<Role> findById(UUID id) {
+        return Optional.ofNullable(snapshot.byId.get(id));
+    }
+
+    public Optional<Role> findByName(String name) {
+        return Optional.ofNullable(snapshot.byName.get(name));
+    }
+
+    public Map<UUID, Role> findAllById(Collection<UUID> ids) {
+        Snapshot current = snapshot;
+        Map<UUID, Role> roles = new HashMap<>();
+        for (UUID id : ids) {
+            Role role = current.byId.get(id);
+            if (role != null) {
+                roles.put(id, role);
+            }
+        }
+        return roles;
+    }
+
+    public List<Role> findAll() {
+        return new ArrayList<>(snapshot.byId.values());
+    }
+
+    public List<Role> findAll(UUID after, int limit) {
+        NavigableMap<UUID, Role> roles = snapshot.byId;
+        return (after == null ? roles : roles.tailMap(after, false)).values().stream()
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    public void put(Role role) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    replace(role);
+                }
+            });
+        } else {
+            replace(role);
+        }
+    }
+
+    private synchronized void replace(Role role) {
+        List<Role> roles = snapshot.byId.values().stream()
+                .filter(r -> !r.getId().equals(role.getId()) && !r.getName().equals(role.getName()))
+                .collect(Collectors.toCollection(ArrayList::new));
+        roles.add(role);
+        snapshot = new Snapshot(roles);
+    }
+
+    private static final class Snapshot {
+
+        private final NavigableMap<UUID, Role> byId;
+        private final Map<String, Role> byName;
+
+        private Snapshot(Collection<Role> roles) {
+            NavigableMap<UUID, Role> ids = new TreeMap<>(ID_ORDER);
+            Map<String, Role> names = new HashMap<>();
+            for (Role role : roles) {
+                ids.put(role.getId(), role);
+                names.put(role.getName(), role);
+            }
+            this.byId = Collections.unmodifiableNavigableMap(ids);
+            this.byName = Collections.unmodifiableMap(names);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.ecore.roles.service.index;
+
+import com.ecore.roles.client.TeamsClient;
+import com.ecore.roles.client.model.Team;
+import com.ecore.roles.configuration.ClientsConfigurationProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local replica of the Teams directory, kept in sync with {@code TeamsClient.getTeams} in the
+ * background. Each team's members, its lead included, are held in a hash set next to the inverse
+ * user-to-teams map, so "is user U in team T" and "which teams contain user U" are answered without
+ * a scan or a request.
+ * <p>
+ * A failed sync keeps the previous snapshot; {@code teams.directory.sync.lag} shows how old it is.
+ */
+@Log4j2
+@Component
+public class TeamDirectory {
+
+    private final TeamsClient teamsClient;
+    private final ClientsConfigurationProperties clientsConfigurationProperties;
+    private final Clock clock;
+    private final Timer syncSuccess;
+    private final Timer syncFailure;
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public TeamDirectory(
+            TeamsClient teamsClient,
+            ClientsConfigurationProperties clientsConfigurationProperties,
+            MeterRegistry meterRegistry) {
+        this(teamsClient, clientsConfigurationProperties, meterRegistry, Clock.systemUTC());
+    }
+
+    TeamDirectory(
+            TeamsClient teamsClient,
+            ClientsConfigurationProperties clientsConfigurationProperties,
+            MeterRegistry meterRegistry,
+            Clock clock) {
+        this.teamsClient = teamsClient;
+        this.clientsConfigurationProperties = clientsConfigurationProperties;
+        this.clock = clock;
+        this.snapshot = new Snapshot(Collections.emptyList(), clock.instant());
+        this.syncSuccess = syncTimer(meterRegistry, "success");
+        this.syncFailure = syncTimer(meterRegistry, "failure");
+        TimeGauge.builder("teams.directory.sync.lag", this, TimeUnit.MILLISECONDS,
+                directory -> directory.getSyncLag().toMillis())
+                .description("Time since the team directory last synced successfully")
+                .register(meterRegistry);
+        Gauge.builder("teams.directory.teams", this, TeamDirectory::size)
+                .description("Teams held in the local team directory")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "#{@clientsConfigurationProperties.teamsDirectory.syncInterval.toMillis()}")
+    public void scheduledRefresh() {
+        if (!clientsConfigurationProperties.getTeamsDirectory().isEnabled()) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Team directory sync failed, keeping snapshot from {}", snapshot.syncedAt, e);
+        }
+    }
+
+    public synchronized int refresh() {
+        long started = System.nanoTime();
+        try {
+            List<Team> teams = teamsClient.getTeams().getBody();
+            snapshot = new Snapshot(teams == null ? Collections.emptyList() : teams, clock.instant());
+            syncSuccess.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return snapshot.teams.size();
+        } catch (RuntimeException e) {
+            syncFailure.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    public Team getTeam(UUID teamId) {
+        return snapshot.teams.get(teamId);
+    }
+
+    public Collection<Team> getTeams() {
+        return Collections.unmodifiableCollection(snapshot.teams.values());
+    }
+
+    public boolean isMember(UUID teamId, UUID userId) {
+        return snapshot.membersByTeam.getOrDefault(teamId, Collections.emptySet()).contains(userId);
+    }
+
+    public Set<UUID> getTeamIds(UUID userId) {
+        return snapshot.teamsByMember.getOrDefault(userId, Collections.emptySet());
+    }
+
+    public Instant getSyncedAt() {
+        return snapshot.syncedAt;
+    }
+
+    public Duration getSyncLag() {
+        return Duration.between(snapshot.syncedAt, clock.instant());
+    }
+
+    public int size() {
+        return snapshot.teams.size();
+    }
+
+    private static Timer syncTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("teams.directory.sync")
+                .description("Team directory syncs from the Teams service")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static final class Snapshot {
+
+        private final Map<UUID, Team> teams;
+        private final Map<UUID, Set<UUID>> membersByTeam;
+        private final Map<UUID, Set<UUID>> teamsByMember;
+        private final Instant syncedAt;
+
+        private Snapshot(List<Team> teams, Instant syncedAt) {
+            Map<UUID, Team> byId = new HashMap<>();
+            Map<UUID, Set<UUID>> members = new HashMap<>();
+            Map<UUID, Set<UUID>> memberOf = new HashMap<>();
+            for (Team team : teams) {
+                byId.put(team.getId(), team);
+                Set<UUID> teamMembers = new HashSet<>();
+                if (team.getTeamLeadId() != null) {
+                    teamMembers.add(team.getTeamLeadId());
+                }
+                if (team.getTeamMemberIds() != null) {
+                    teamMembers.addAll(team.getTeamMemberIds());
+                }
+                members.put(team.getId(), Collections.unmodifiableSet(teamMembers));
+                for (UUID member : teamMembers) {
+                    memberOf.computeIfAbsent(member, id -> new HashSet<>()).add(team.getId());
+                }
+            }
+            memberOf.replaceAll((member, teamIds) -> Collections.unmodifiableSet(teamIds));
+            this.teams = byId;
+            this.membersByTeam = members;
+            this.teamsByMember = memberOf;
+            this.syncedAt = syncedAt;
+        }
+    }
+}
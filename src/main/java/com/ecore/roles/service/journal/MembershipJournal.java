@@ -0,0 +1,294 @@
+package com.ecore.roles.service.journal;
+
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.Role;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file of accepted membership assignments.
+ * <p>
+ * Each record is big-endian: tracking id, role id, user id and team id as two longs each, followed
+ * by a CRC32 of those bytes. Appends arriving within {@code syncInterval} of each other are written
+ * and fsynced together, and each one completes only once its record is on disk. Durable records are
+ * also handed to a listener on the journal thread, strictly in journal order.
+ * <p>
+ * A checkpoint file next to the journal holds the offset up to which records are stored in the
+ * database; it is replaced atomically. Opening the journal returns the records past the checkpoint,
+ * dropping a torn record at the tail. Once every record is stored and the file has grown past
+ * {@link #COMPACT_SIZE} it is truncated.
+ */
+@Log4j2
+public class MembershipJournal implements Closeable {
+
+    static final int RECORD_SIZE = Long.BYTES * 8 + Integer.BYTES;
+    static final long COMPACT_SIZE = 16L * 1024 * 1024;
+
+    private final Path checkpointPath;
+    private final long syncIntervalNanos;
+    private final Consumer<Entry> onDurable;
+    private final FileChannel channel;
+    private final List<Entry> recovered;
+    private final ScheduledExecutorService syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "membership-journal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guarded by this.
+    private final List<Append> appends = new ArrayList<>();
+    private boolean syncScheduled;
+    private boolean closed;
+
+    // Only touched by the syncer thread once the journal is open.
+    private long end;
+
+    private MembershipJournal(Path path, Duration syncInterval, Consumer<Entry> onDurable)
+            throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        this.checkpointPath = parent.resolve(path.getFileName() + ".checkpoint");
+        this.syncIntervalNanos = syncInterval.toNanos();
+        this.onDurable = onDurable;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.recovered = Collections.unmodifiableList(recover());
+    }
+
+    /**
+     * Opens the journal, recovering the records past the checkpoint.
+     *
+     * @param onDurable receives each appended record once it is durable, in journal order
+     */
+    public static MembershipJournal open(Path path, Duration syncInterval, Consumer<Entry> onDurable)
+            throws IOException {
+        return new MembershipJournal(path, syncInterval, onDurable);
+    }
+
+    /**
+     * Records that were journaled but not checkpointed when the journal was opened, in order.
+     */
+    public List<Entry> getRecovered() {
+        return recovered;
+    }
+
+    /**
+     * Journals an assignment. The returned future completes once the record is durable.
+     */
+    public CompletableFuture<Entry> append(UUID trackingId, Membership membership) {
+        Append append = new Append(trackingId, membership, new CompletableFuture<>());
+        synchronized (this) {
+            if (closed) {
+                append.future.completeExceptionally(new IOException("Membership journal is closed"));
+                return append.future;
+            }
+            appends.add(append);
+            if (!syncScheduled) {
+                syncScheduled = true;
+                syncer.schedule(this::sync, syncIntervalNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        return append.future;
+    }
+
+    /**
+     * Marks every record up to {@code offset} as stored in the database.
+     */
+    public CompletableFuture<Void> checkpoint(long offset) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                writeCheckpoint(offset);
+                if (offset == end && end >= COMPACT_SIZE) {
+                    channel.truncate(0);
+                    channel.force(true);
+                    end = 0;
+                    writeCheckpoint(0);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, syncer);
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            closed = true;
+        }
+        syncer.execute(this::sync);
+        syncer.shutdown();
+        try {
+            syncer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    private void sync() {
+        List<Append> batch;
+        synchronized (this) {
+            batch = new ArrayList<>(appends);
+            appends.clear();
+            syncScheduled = false;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(batch.size() * RECORD_SIZE);
+        for (Append append : batch) {
+            encode(buffer, append.trackingId, append.membership);
+        }
+        buffer.flip();
+        try {
+            long position = end;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            channel.force(false);
+            for (Append append : batch) {
+                end += RECORD_SIZE;
+                Entry entry = new Entry(append.trackingId, append.membership, end);
+                onDurable.accept(entry);
+                append.future.complete(entry);
+            }
+        } catch (IOException e) {
+            // Nothing past `end` was acknowledged, so the next sync simply overwrites the partial write.
+            log.error("Could not sync {} membership journal records", batch.size(), e);
+            batch.forEach(append -> append.future.completeExceptionally(e));
+        }
+    }
+
+    private List<Entry> recover() throws IOException {
+        long size = channel.size();
+        long offset = Math.min(readCheckpoint(), size - size % RECORD_SIZE);
+        List<Entry> entries = new ArrayList<>();
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        while (offset + RECORD_SIZE <= size) {
+            record.clear();
+            while (record.hasRemaining() && channel.read(record, offset + record.position()) >= 0) {
+                // Keep reading until the record is complete.
+            }
+            record.flip();
+            Entry entry = decode(record, offset + RECORD_SIZE);
+            if (entry == null) {
+                break;
+            }
+            entries.add(entry);
+            offset += RECORD_SIZE;
+        }
+        if (offset < size) {
+            log.warn("Dropping {} bytes of torn membership journal tail", size - offset);
+            channel.truncate(offset);
+            channel.force(true);
+        }
+        end = offset;
+        return entries;
+    }
+
+    private long readCheckpoint() throws IOException {
+        if (!Files.exists(checkpointPath)) {
+            return 0;
+        }
+        byte[] bytes = Files.readAllBytes(checkpointPath);
+        return bytes.length == Long.BYTES ? ByteBuffer.wrap(bytes).getLong() : 0;
+    }
+
+    private void writeCheckpoint(long offset) throws IOException {
+        Path temp = Files.createTempFile(checkpointPath.getParent(), checkpointPath.getFileName().toString(),
+                ".tmp");
+        try {
+            try (FileChannel checkpoint = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                checkpoint.write(ByteBuffer.allocate(Long.BYTES).putLong(0, offset));
+                checkpoint.force(true);
+            }
+            Files.move(temp, checkpointPath, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void encode(ByteBuffer buffer, UUID trackingId, Membership membership) {
+        int start = buffer.position();
+        putUuid(buffer, trackingId);
+        putUuid(buffer, membership.getRole().getId());
+        putUuid(buffer, membership.getUserId());
+        putUuid(buffer, membership.getTeamId());
+        buffer.putInt((int) crc(buffer, start, buffer.position()));
+    }
+
+    private static Entry decode(ByteBuffer record, long end) {
+        if (record.getInt(RECORD_SIZE - Integer.BYTES) != (int) crc(record, 0, RECORD_SIZE - Integer.BYTES)) {
+            return null;
+        }
+        UUID trackingId = getUuid(record);
+        Membership membership = Membership.builder()
+                .role(Role.builder().id(getUuid(record)).build())
+                .userId(getUuid(record))
+                .teamId(getUuid(record))
+                .build();
+        return new Entry(trackingId, membership, end);
+    }
+
+    private static long crc(ByteBuffer buffer, int from, int to) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(from).limit(to));
+        return crc.getValue();
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID id) {
+        buffer.putLong(id.getMostSignificantBits());
+        buffer.putLong(id.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * A durable journal record: the assignment, its tracking id and the offset just past it.
+     */
+    @AllArgsConstructor
+    @Getter
+    public static class Entry {
+
+        private final UUID trackingId;
+
+        private final Membership membership;
+
+        private final long end;
+    }
+
+    @AllArgsConstructor
+    private static class Append {
+
+        private final UUID trackingId;
+
+        private final Membership membership;
+
+        private final CompletableFuture<Entry> future;
+    }
+}
@@ -0,0 +1,191 @@
+package com.ecore.roles.service.journal;
+
+import com.ecore.roles.configuration.MembershipsConfigurationProperties;
+import com.ecore.roles.configuration.MembershipsConfigurationProperties.WriteBehindProperties;
+import com.ecore.roles.exception.InvalidArgumentException;
+import com.ecore.roles.exception.ResourceNotFoundException;
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.MembershipAssignment;
+import com.ecore.roles.model.MembershipTicket;
+import com.ecore.roles.model.Role;
+import com.ecore.roles.service.MembershipsService;
+import com.ecore.roles.service.index.RoleCatalogue;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.NonNull;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Accept-then-persist mode for membership assignments. An accepted assignment is validated against
+ * the role catalogue, appended to the {@link MembershipJournal} and acknowledged once the record is
+ * durable; a single background thread then stores journaled assignments in batches through
+ * {@link MembershipsService#assignRolesToMemberships} and checkpoints the journal after each batch.
+ * <p>
+ * Entries journaled but not checkpointed before a restart are replayed at startup. An entry stored
+ * just before a crash is replayed too and then reported as a duplicate.
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(prefix = "memberships.write-behind", name = "enabled", havingValue = "true")
+public class MembershipWriteBehind {
+
+    private final MembershipsService membershipsService;
+    private final RoleCatalogue roleCatalogue;
+    private final WriteBehindProperties properties;
+    private final Cache<UUID, MembershipTicket> tickets;
+    private final BlockingDeque<MembershipJournal.Entry> pending = new LinkedBlockingDeque<>();
+    private final ScheduledExecutorService drainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "membership-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private MembershipJournal journal;
+
+    @Autowired
+    public MembershipWriteBehind(
+            MembershipsService membershipsService,
+            RoleCatalogue roleCatalogue,
+            MembershipsConfigurationProperties membershipsConfigurationProperties,
+            MeterRegistry meterRegistry) {
+        this.membershipsService = membershipsService;
+        this.roleCatalogue = roleCatalogue;
+        this.properties = membershipsConfigurationProperties.getWriteBehind();
+        this.tickets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTrackedAssignments())
+                .build();
+        Gauge.builder("memberships.write.behind.pending", pending, BlockingDeque::size)
+                .description("Journaled membership assignments not yet stored")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        // Entries are queued from the journal thread so the queue always follows journal order.
+        journal = MembershipJournal.open(properties.getJournalPath(), properties.getSyncInterval(),
+                pending::add);
+        List<MembershipJournal.Entry> recovered = journal.getRecovered();
+        for (MembershipJournal.Entry entry : recovered) {
+            tickets.put(entry.getTrackingId(),
+                    MembershipTicket.pending(entry.getTrackingId(), entry.getMembership()));
+        }
+        // No assignment is accepted before start() returns, so recovered entries stay ahead of new ones.
+        pending.addAll(recovered);
+        if (!recovered.isEmpty()) {
+            log.info("Replaying {} journaled membership assignments", recovered.size());
+        }
+        long drainInterval = properties.getDrainInterval().toMillis();
+        drainer.scheduleWithFixedDelay(this::drainSafely, drainInterval, drainInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        drainer.shutdown();
+        try {
+            drainer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Whatever is still pending stays in the journal and is replayed at the next start.
+        journal.close();
+    }
+
+    /**
+     * Journals a validated assignment. The returned ticket completes once the entry is durable, which
+     * is when the assignment may be acknowledged.
+     */
+    public CompletableFuture<MembershipTicket> accept(@NonNull Membership m) {
+        UUID roleId = ofNullable(m.getRole()).map(Role::getId)
+                .orElseThrow(() -> new InvalidArgumentException(Role.class));
+        if (m.getUserId() == null || m.getTeamId() == null) {
+            throw new InvalidArgumentException(Membership.class);
+        }
+        if (roleCatalogue.findById(roleId).isEmpty()) {
+            throw new ResourceNotFoundException(Role.class, roleId);
+        }
+
+        UUID trackingId = UUID.randomUUID();
+        MembershipTicket ticket = MembershipTicket.pending(trackingId, m);
+        tickets.put(trackingId, ticket);
+        return journal.append(trackingId, m)
+                .handle((entry, error) -> {
+                    if (error != null) {
+                        tickets.invalidate(trackingId);
+                        throw new IllegalStateException("Could not journal membership assignment",
+                                error instanceof CompletionException ? error.getCause() : error);
+                    }
+                    return ticket;
+                });
+    }
+
+    public Optional<MembershipTicket> getTicket(UUID trackingId) {
+        return ofNullable(tickets.getIfPresent(trackingId));
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    void drainSafely() {
+        try {
+            while (drain()) {
+                // Keep storing while full batches are waiting.
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not store journaled membership assignments, retrying", e);
+        }
+    }
+
+    /**
+     * Stores one batch of journaled assignments and checkpoints past it.
+     *
+     * @return whether a full batch was stored, so more may be waiting
+     */
+    private boolean drain() {
+        List<MembershipJournal.Entry> batch = new ArrayList<>();
+        pending.drainTo(batch, properties.getBatchSize());
+        if (batch.isEmpty()) {
+            return false;
+        }
+        List<MembershipAssignment> results;
+        try {
+            results = membershipsService.assignRolesToMemberships(batch.stream()
+                    .map(MembershipJournal.Entry::getMembership)
+                    .collect(Collectors.toList()));
+        } catch (RuntimeException e) {
+            // Put the batch back in front of anything accepted since, in journal order.
+            for (int i = batch.size() - 1; i >= 0; i--) {
+                pending.addFirst(batch.get(i));
+            }
+            throw e;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            UUID trackingId = batch.get(i).getTrackingId();
+            tickets.put(trackingId, MembershipTicket.of(trackingId, results.get(i)));
+        }
+        journal.checkpoint(batch.get(batch.size() - 1).getEnd()).join();
+        return batch.size() == properties.getBatchSize();
+    }
+}
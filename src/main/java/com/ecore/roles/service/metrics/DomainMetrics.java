@@ -0,0 +1,73 @@
+package com.ecore.roles.service.metrics;
+
+import com.ecore.roles.exception.InvalidArgumentException;
+import com.ecore.roles.exception.ResourceExistsException;
+import com.ecore.roles.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counters for the domain events behind the roles and memberships endpoints, so error rates can be
+ * told apart from latency: memberships created, memberships rejected by reason and role lookups
+ * that found nothing.
+ */
+@Component
+public class DomainMetrics {
+
+    static final String DUPLICATE = "duplicate";
+    static final String ROLE_NOT_FOUND = "role_not_found";
+    static final String INVALID = "invalid";
+    static final String ERROR = "error";
+
+    private final MeterRegistry meterRegistry;
+    private final Counter membershipsCreated;
+    private final Counter rolesNotFound;
+
+    @Autowired
+    public DomainMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.membershipsCreated = Counter.builder("memberships.created")
+                .description("Memberships stored, single and bulk")
+                .register(meterRegistry);
+        this.rolesNotFound = Counter.builder("roles.not.found")
+                .description("Role lookups and membership assignments naming a role that does not exist")
+                .register(meterRegistry);
+        for (String reason : new String[] {DUPLICATE, ROLE_NOT_FOUND, INVALID, ERROR}) {
+            membershipsRejected(reason);
+        }
+    }
+
+    public void membershipsCreated(int count) {
+        membershipsCreated.increment(count);
+    }
+
+    public void membershipRejected(Exception cause) {
+        membershipsRejected(reason(cause)).increment();
+    }
+
+    public void roleNotFound() {
+        rolesNotFound.increment();
+    }
+
+    private Counter membershipsRejected(String reason) {
+        return Counter.builder("memberships.rejected")
+                .description("Membership assignments refused, by reason")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static String reason(Exception cause) {
+        if (cause instanceof ResourceExistsException) {
+            return DUPLICATE;
+        }
+        if (cause instanceof ResourceNotFoundException) {
+            return ROLE_NOT_FOUND;
+        }
+        if (cause instanceof InvalidArgumentException) {
+            return INVALID;
+        }
+        return ERROR;
+    }
+}
@@ -0,0 +1,96 @@
+package com.ecore.roles.service.warmup;
+
+import com.ecore.roles.client.cache.CacheSnapshot;
+import com.ecore.roles.client.cache.CacheSnapshotFile;
+import com.ecore.roles.configuration.ClientsConfigurationProperties;
+import com.ecore.roles.service.TeamsService;
+import com.ecore.roles.service.UsersService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Persists the user and team caches to {@code clients.warmup.snapshot-path} so that a restarted
+ * node can serve them before its first upstream call. Snapshots are written periodically and at
+ * shutdown, and restored once at boot by {@link CacheWarmup}.
+ */
+@Log4j2
+@Component
+public class CacheSnapshotStore {
+
+    private final UsersService usersService;
+    private final TeamsService teamsService;
+    private final ClientsConfigurationProperties clientsConfigurationProperties;
+    private final Clock clock;
+
+    @Autowired
+    public CacheSnapshotStore(
+            UsersService usersService,
+            TeamsService teamsService,
+            ClientsConfigurationProperties clientsConfigurationProperties) {
+        this(usersService, teamsService, clientsConfigurationProperties, Clock.systemUTC());
+    }
+
+    CacheSnapshotStore(
+            UsersService usersService,
+            TeamsService teamsService,
+            ClientsConfigurationProperties clientsConfigurationProperties,
+            Clock clock) {
+        this.usersService = usersService;
+        this.teamsService = teamsService;
+        this.clientsConfigurationProperties = clientsConfigurationProperties;
+        this.clock = clock;
+    }
+
+    /**
+     * Restores the last snapshot into the caches, unless it is missing, unreadable or older than
+     * {@code clients.warmup.snapshot-max-age}. Returns whether anything was restored.
+     */
+    public boolean load() {
+        Path path = clientsConfigurationProperties.getWarmup().getSnapshotPath();
+        if (path == null || !Files.exists(path)) {
+            return false;
+        }
+        try {
+            CacheSnapshot snapshot = CacheSnapshotFile.read(path);
+            Duration age = Duration.between(snapshot.getSavedAt(), clock.instant());
+            if (age.compareTo(clientsConfigurationProperties.getWarmup().getSnapshotMaxAge()) > 0) {
+                log.info("Ignoring cache snapshot {}, it is {} old", path, age);
+                return false;
+            }
+            usersService.cacheUsers(snapshot.getUsers());
+            teamsService.cacheTeams(snapshot.getTeams());
+            log.info("Restored {} users and {} teams from cache snapshot {}",
+                    snapshot.getUsers().size(), snapshot.getTeams().size(), path);
+            return true;
+        } catch (IOException e) {
+            log.warn("Could not read cache snapshot {}", path, e);
+            return false;
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "#{@clientsConfigurationProperties.warmup.snapshotInterval.toMillis()}",
+            fixedDelayString = "#{@clientsConfigurationProperties.warmup.snapshotInterval.toMillis()}")
+    @PreDestroy
+    public void save() {
+        Path path = clientsConfigurationProperties.getWarmup().getSnapshotPath();
+        if (path == null) {
+            return;
+        }
+        try {
+            CacheSnapshotFile.write(path, new CacheSnapshot(clock.instant(),
+                    usersService.getCachedUsers(), teamsService.getCachedTeams()));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write cache snapshot {}", path, e);
+        }
+    }
+}
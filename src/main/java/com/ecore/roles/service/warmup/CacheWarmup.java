@@ -0,0 +1,64 @@
+package com.ecore.roles.service.warmup;
+
+import com.ecore.roles.configuration.ClientsConfigurationProperties;
+import com.ecore.roles.service.TeamsService;
+import com.ecore.roles.service.UsersService;
+import com.ecore.roles.service.index.RoleCatalogue;
+import com.ecore.roles.service.index.TeamDirectory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Fills the caches before the application starts taking traffic. Spring Boot only switches the
+ * readiness state to {@code ACCEPTING_TRAFFIC} once every {@link ApplicationRunner} has returned,
+ * so {@code /actuator/health/readiness} stays down until this is done.
+ * <p>
+ * A cache snapshot, when one is configured and recent enough, is restored first; the upstreams are
+ * then asked for the full user and team lists. Upstream failures are logged and do not prevent
+ * startup: the node then starts with whatever the snapshot provided.
+ */
+@Log4j2
+@Component
+@RequiredArgsConstructor
+public class CacheWarmup implements ApplicationRunner {
+
+    private final CacheSnapshotStore cacheSnapshotStore;
+    private final RoleCatalogue roleCatalogue;
+    private final TeamDirectory teamDirectory;
+    private final UsersService usersService;
+    private final TeamsService teamsService;
+    private final ClientsConfigurationProperties clientsConfigurationProperties;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!clientsConfigurationProperties.getWarmup().isEnabled()) {
+            return;
+        }
+        long started = System.nanoTime();
+        cacheSnapshotStore.load();
+
+        warm("users", () -> usersService.getUsers().size());
+        warm("teams", () -> teamsService.getTeams().size());
+        if (clientsConfigurationProperties.getTeamsDirectory().isEnabled()) {
+            warm("team directory", teamDirectory::refresh);
+        }
+        log.info("Cache warm-up finished in {} ms with {} roles, {} users and {} teams",
+                (System.nanoTime() - started) / 1_000_000,
+                roleCatalogue.findAll().size(),
+                usersService.getCachedUsers().size(),
+                teamsService.getCachedTeams().size());
+    }
+
+    private static void warm(String name, IntSupplier loader) {
+        try {
+            log.info("Warmed up {} {}", loader.getAsInt(), name);
+        } catch (RuntimeException e) {
+            log.warn("Could not warm up {}", name, e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecore.roles.web;
+
+import com.ecore.roles.web.dto.MembershipDto;
+import com.ecore.roles.web.dto.MembershipTicketDto;
+import org.springframework.http.ResponseEntity;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncMembershipsApi {
+
+    CompletableFuture<ResponseEntity<MembershipTicketDto>> acceptMembership(
+            MembershipDto membership);
+
+    ResponseEntity<MembershipTicketDto> getMembershipTicket(
+            UUID trackingId);
+
+}
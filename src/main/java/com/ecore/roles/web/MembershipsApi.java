@@ -1,17 +1,57 @@
 package com.ecore.roles.web;
 
+import com.ecore.roles.web.dto.MembershipAssignmentDto;
+import com.ecore.roles.web.dto.MembershipCountsDto;
 import com.ecore.roles.web.dto.MembershipDto;
+import com.ecore.roles.web.dto.PageDto;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface MembershipsApi {
 
     ResponseEntity<MembershipDto> assignRoleToMembership(
+            String idempotencyKey,
             MembershipDto membership);
 
+    ResponseEntity<List<MembershipAssignmentDto>> assignRolesToMemberships(
+            List<MembershipDto> memberships);
+
     ResponseEntity<List<MembershipDto>> getMemberships(
             UUID roleId);
 
+    ResponseEntity<PageDto<MembershipDto>> getMembershipsPage(
+            UUID roleId,
+            String cursor,
+            Integer limit);
+
+    CompletableFuture<ResponseEntity<PageDto<MembershipDto>>> getExpandedMembershipsPage(
+            UUID roleId,
+            String cursor,
+            Integer limit);
+
+    ResponseEntity<PageDto<MembershipDto>> getMembershipsPageByUser(
+            UUID userId,
+            String cursor,
+            Integer limit);
+
+    ResponseEntity<PageDto<MembershipDto>> getMembershipsPageByTeam(
+            UUID teamId,
+            String cursor,
+            Integer limit);
+
+    ResponseEntity<MembershipCountsDto> countMemberships(
+            List<UUID> teamIds);
+
+    ResponseEntity<StreamingResponseBody> streamMemberships(
+            UUID roleId);
+
+    ResponseEntity<SseEmitter> streamMembershipEvents(
+            Long lastEventId,
+            Long after);
+
 }
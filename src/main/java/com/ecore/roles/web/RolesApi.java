@@ -1,5 +1,6 @@
 package com.ecore.roles.web;
 
+import com.ecore.roles.web.dto.PageDto;
 import com.ecore.roles.web.dto.RoleDto;
 import org.springframework.http.ResponseEntity;
 
@@ -9,11 +10,20 @@ import java.util.UUID;
 public interface RolesApi {
 
     ResponseEntity<RoleDto> createRole(
+            String idempotencyKey,
             RoleDto role);
 
     ResponseEntity<List<RoleDto>> getRoles();
 
+    ResponseEntity<PageDto<RoleDto>> getRolesPage(
+            String cursor,
+            Integer limit);
+
     ResponseEntity<RoleDto> getRole(
             UUID roleId);
 
+    ResponseEntity<RoleDto> getRole(
+            UUID userId,
+            UUID teamId);
+
 }
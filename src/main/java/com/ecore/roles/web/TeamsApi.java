@@ -1,15 +1,22 @@
 package com.ecore.roles.web;
 
+import com.ecore.roles.web.dto.LookupDto;
+import com.ecore.roles.web.dto.TeamDirectoryDto;
 import com.ecore.roles.web.dto.TeamDto;
 import org.springframework.http.ResponseEntity;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface TeamsApi {
 
-    ResponseEntity<List<TeamDto>> getTeams();
+    CompletableFuture<ResponseEntity<List<TeamDto>>> getTeams();
 
-    ResponseEntity<TeamDto> getTeam(UUID teamId);
+    CompletableFuture<ResponseEntity<TeamDto>> getTeam(UUID teamId);
+
+    CompletableFuture<ResponseEntity<List<LookupDto<TeamDto>>>> lookupTeams(List<UUID> teamIds);
+
+    ResponseEntity<TeamDirectoryDto> refreshTeamDirectory();
 
 }
@@ -1,14 +1,18 @@
 package com.ecore.roles.web;
 
+import com.ecore.roles.web.dto.LookupDto;
 import com.ecore.roles.web.dto.UserDto;
 import org.springframework.http.ResponseEntity;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface UsersApi {
 
-    ResponseEntity<List<UserDto>> getUsers();
+    CompletableFuture<ResponseEntity<List<UserDto>>> getUsers();
 
-    ResponseEntity<UserDto> getUser(UUID userId);
+    CompletableFuture<ResponseEntity<UserDto>> getUser(UUID userId);
+
+    CompletableFuture<ResponseEntity<List<LookupDto<UserDto>>>> lookupUsers(List<UUID> userIds);
 }
@@ -0,0 +1,71 @@
+package com.ecore.roles.web.dto;
+
+import com.ecore.roles.exception.ResourceNotFoundException;
+import com.ecore.roles.exception.UpstreamUnavailableException;
+import com.ecore.roles.model.Lookup;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+@EqualsAndHashCode
+public class LookupDto<T> {
+
+    @JsonProperty
+    private UUID id;
+
+    @JsonProperty
+    private int status;
+
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private T value;
+
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
+
+    public static <M, T> LookupDto<T> fromModel(Lookup<M> lookup, Function<M, T> mapper) {
+        if (lookup == null) {
+            return null;
+        }
+        if (lookup.isFound()) {
+            return LookupDto.<T>builder()
+                    .id(lookup.getId())
+                    .status(200)
+                    .value(mapper.apply(lookup.getValue()))
+                    .build();
+        }
+        return LookupDto.<T>builder()
+                .id(lookup.getId())
+                .status(status(lookup.getError()))
+                .error(lookup.getError().getMessage())
+                .build();
+    }
+
+    private static int status(Throwable error) {
+        if (error instanceof ResourceNotFoundException) {
+            return 404;
+        }
+        if (error instanceof UpstreamUnavailableException) {
+            return 503;
+        }
+        if (error instanceof TimeoutException) {
+            return 504;
+        }
+        return 502;
+    }
+}
@@ -0,0 +1,65 @@
+package com.ecore.roles.web.dto;
+
+import com.ecore.roles.exception.InvalidArgumentException;
+import com.ecore.roles.exception.ResourceExistsException;
+import com.ecore.roles.exception.ResourceNotFoundException;
+import com.ecore.roles.model.MembershipAssignment;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+@EqualsAndHashCode
+public class MembershipAssignmentDto {
+
+    @JsonProperty
+    private int index;
+
+    @JsonProperty
+    private int status;
+
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private MembershipDto membership;
+
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
+
+    public static MembershipAssignmentDto fromModel(MembershipAssignment assignment) {
+        if (assignment == null) {
+            return null;
+        }
+        if (assignment.isCreated()) {
+            return MembershipAssignmentDto.builder()
+                    .index(assignment.getIndex())
+                    .status(200)
+                    .membership(MembershipDto.fromModel(assignment.getMembership()))
+                    .build();
+        }
+        return MembershipAssignmentDto.builder()
+                .index(assignment.getIndex())
+                .status(status(assignment.getError()))
+                .error(assignment.getError().getMessage())
+                .build();
+    }
+
+    private static int status(RuntimeException error) {
+        if (error instanceof ResourceNotFoundException) {
+            return 404;
+        }
+        if (error instanceof ResourceExistsException || error instanceof InvalidArgumentException) {
+            return 400;
+        }
+        return 500;
+    }
+}
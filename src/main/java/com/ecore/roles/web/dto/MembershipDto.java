@@ -1,7 +1,9 @@
 package com.ecore.roles.web.dto;
 
 import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.MembershipDetails;
 import com.ecore.roles.model.Role;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -45,6 +47,14 @@ public class MembershipDto {
     @EqualsAndHashCode.Include
     private UUID teamId;
 
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private UserDto user;
+
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private TeamDto team;
+
     public static MembershipDto fromModel(Membership membership) {
         if (membership == null) {
             return null;
@@ -57,6 +67,13 @@ public class MembershipDto {
                 .build();
     }
 
+    public static MembershipDto fromModel(MembershipDetails details) {
+        MembershipDto membershipDto = fromModel(details.getMembership());
+        membershipDto.setUser(UserDto.fromModel(details.getUser()));
+        membershipDto.setTeam(TeamDto.fromModel(details.getTeam()));
+        return membershipDto;
+    }
+
     public Membership toModel() {
         return Membership.builder()
                 .id(this.id)
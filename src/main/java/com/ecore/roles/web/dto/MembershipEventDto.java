@@ -0,0 +1,62 @@
+package com.ecore.roles.web.dto;
+
+import com.ecore.roles.model.MembershipEvent;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+@EqualsAndHashCode
+public class MembershipEventDto {
+
+    @JsonProperty
+    private long id;
+
+    @JsonProperty
+    private MembershipEvent.Type type;
+
+    @JsonProperty
+    private UUID roleId;
+
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private UUID membershipId;
+
+    @JsonProperty(value = "teamMemberId")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private UUID userId;
+
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private UUID teamId;
+
+    @JsonProperty
+    private Instant createdAt;
+
+    public static MembershipEventDto fromModel(MembershipEvent event) {
+        if (event == null) {
+            return null;
+        }
+        return MembershipEventDto.builder()
+                .id(event.getId())
+                .type(event.getType())
+                .roleId(event.getRoleId())
+                .membershipId(event.getMembershipId())
+                .userId(event.getUserId())
+                .teamId(event.getTeamId())
+                .createdAt(event.getCreatedAt())
+                .build();
+    }
+}
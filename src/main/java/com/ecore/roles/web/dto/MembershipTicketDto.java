@@ -0,0 +1,48 @@
+package com.ecore.roles.web.dto;
+
+import com.ecore.roles.model.MembershipTicket;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+@EqualsAndHashCode
+public class MembershipTicketDto {
+
+    @JsonProperty
+    private UUID trackingId;
+
+    @JsonProperty
+    private MembershipTicket.State state;
+
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private MembershipDto membership;
+
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
+
+    public static MembershipTicketDto fromModel(MembershipTicket ticket) {
+        if (ticket == null) {
+            return null;
+        }
+        return MembershipTicketDto.builder()
+                .trackingId(ticket.getTrackingId())
+                .state(ticket.getState())
+                .membership(MembershipDto.fromModel(ticket.getMembership()))
+                .error(ticket.getError() == null ? null : ticket.getError().getMessage())
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.ecore.roles.web.dto;
+
+import com.ecore.roles.exception.InvalidArgumentException;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+@EqualsAndHashCode
+public class PageDto<T> {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    @JsonProperty
+    private List<T> items;
+
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
+    /**
+     * Builds a keyset page. A full page carries the id of its last item as the cursor for the next one;
+     * a short page is the last.
+     */
+    public static <T> PageDto<T> of(List<T> items, int limit, Function<T, UUID> id) {
+        String nextCursor = items.size() < limit ? null : encodeCursor(id.apply(items.get(items.size() - 1)));
+        return PageDto.<T>builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    public static int limit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    public static String encodeCursor(UUID id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static UUID decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            return UUID.fromString(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidArgumentException(PageDto.class);
+        }
+    }
+}
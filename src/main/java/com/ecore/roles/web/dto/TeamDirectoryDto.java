@@ -0,0 +1,32 @@
+package com.ecore.roles.web.dto;
+
+import com.ecore.roles.service.index.TeamDirectory;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class TeamDirectoryDto {
+
+    @JsonProperty
+    private int teams;
+
+    @JsonProperty
+    private Instant syncedAt;
+
+    public static TeamDirectoryDto fromModel(TeamDirectory teamDirectory) {
+        return TeamDirectoryDto.builder()
+                .teams(teamDirectory.size())
+                .syncedAt(teamDirectory.getSyncedAt())
+                .build();
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecore.roles.web.rest;
+
+import com.ecore.roles.exception.ResourceNotFoundException;
+import com.ecore.roles.model.MembershipTicket;
+import com.ecore.roles.service.journal.MembershipWriteBehind;
+import com.ecore.roles.web.AsyncMembershipsApi;
+import com.ecore.roles.web.dto.MembershipDto;
+import com.ecore.roles.web.dto.MembershipTicketDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping(value = "/v1/roles/memberships/async")
+@ConditionalOnProperty(prefix = "memberships.write-behind", name = "enabled", havingValue = "true")
+public class AsyncMembershipsRestController implements AsyncMembershipsApi {
+
+    private final MembershipWriteBehind membershipWriteBehind;
+
+    @Override
+    @PostMapping(
+            consumes = {"application/json"},
+            produces = {"application/json"})
+    public CompletableFuture<ResponseEntity<MembershipTicketDto>> acceptMembership(
+            @NotNull @Valid @RequestBody MembershipDto membershipDto) {
+        return membershipWriteBehind.accept(membershipDto.toModel())
+                .thenApply(ticket -> ResponseEntity
+                        .status(202)
+                        .body(MembershipTicketDto.fromModel(ticket)));
+    }
+
+    @Override
+    @PostMapping(
+            path = "/{trackingId}",
+            produces = {"application/json"})
+    public ResponseEntity<MembershipTicketDto> getMembershipTicket(
+            @PathVariable UUID trackingId) {
+        MembershipTicket ticket = membershipWriteBehind.getTicket(trackingId)
+                .orElseThrow(() -> new ResourceNotFoundException(MembershipTicket.class, trackingId));
+        return ResponseEntity
+                .status(200)
+                .body(MembershipTicketDto.fromModel(ticket));
+    }
+
+}
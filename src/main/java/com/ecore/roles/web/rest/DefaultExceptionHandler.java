@@ -1,8 +1,12 @@
 package com.ecore.roles.web.rest;
 
 import com.ecore.roles.exception.ErrorResponse;
+import com.ecore.roles.exception.IdempotencyKeyReusedException;
+import com.ecore.roles.exception.IdempotentRequestInProgressException;
+import com.ecore.roles.exception.InvalidArgumentException;
 import com.ecore.roles.exception.ResourceExistsException;
 import com.ecore.roles.exception.ResourceNotFoundException;
+import com.ecore.roles.exception.UpstreamUnavailableException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -20,6 +24,26 @@ public class DefaultExceptionHandler {
         return createResponse(400, exception.getMessage());
     }
 
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handle(InvalidArgumentException exception) {
+        return createResponse(400, exception.getMessage());
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handle(IdempotencyKeyReusedException exception) {
+        return createResponse(422, exception.getMessage());
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handle(IdempotentRequestInProgressException exception) {
+        return createResponse(409, exception.getMessage());
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handle(UpstreamUnavailableException exception) {
+        return createResponse(503, exception.getMessage());
+    }
+
     @ExceptionHandler
     public ResponseEntity<ErrorResponse> handle(IllegalStateException exception) {
         return createResponse(500, exception.getMessage());
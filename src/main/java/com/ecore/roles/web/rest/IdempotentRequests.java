@@ -0,0 +1,164 @@
+package com.ecore.roles.web.rest;
+
+import com.ecore.roles.configuration.IdempotencyConfigurationProperties;
+import com.ecore.roles.exception.IdempotencyKeyReusedException;
+import com.ecore.roles.exception.IdempotentRequestInProgressException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Answers retried writes carrying an {@code Idempotency-Key} with the response to the first request
+ * under that key, without running the write again. Duplicates arriving while the first request is
+ * still running wait for it, up to {@code replayTimeout}, and share its outcome. A failed request is
+ * not remembered, so a later retry runs again; a key reused with a different body is rejected.
+ */
+@Component
+public class IdempotentRequests {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private final Cache<Key, Attempt> attempts;
+    private final Duration replayTimeout;
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter rejected;
+
+    @Autowired
+    public IdempotentRequests(
+            IdempotencyConfigurationProperties idempotencyConfigurationProperties,
+            MeterRegistry meterRegistry) {
+        this.attempts = Caffeine.newBuilder()
+                .expireAfterWrite(idempotencyConfigurationProperties.getTtl())
+                .maximumSize(idempotencyConfigurationProperties.getMaxEntries())
+                .build();
+        this.replayTimeout = idempotencyConfigurationProperties.getReplayTimeout();
+        this.executed = counter(meterRegistry, "executed");
+        this.replayed = counter(meterRegistry, "replayed");
+        this.rejected = counter(meterRegistry, "rejected");
+    }
+
+    /**
+     * Runs {@code write} once per {@code operation} and key; without a key it always runs.
+     *
+     * @param request the request body, compared with the first one sent under the key
+     */
+    public <T> ResponseEntity<T> execute(
+            String idempotencyKey,
+            String operation,
+            Object request,
+            Supplier<ResponseEntity<T>> write) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return write.get();
+        }
+        Key key = new Key(operation, idempotencyKey);
+        Attempt attempt = new Attempt(request, new CompletableFuture<>());
+        Attempt first = attempts.asMap().putIfAbsent(key, attempt);
+        if (first != null) {
+            if (!Objects.equals(first.request, request)) {
+                rejected.increment();
+                throw new IdempotencyKeyReusedException(idempotencyKey);
+            }
+            replayed.increment();
+            return await(idempotencyKey, first).toResponseEntity();
+        }
+
+        executed.increment();
+        try {
+            Snapshot response = Snapshot.of(write.get());
+            attempt.response.complete(response);
+            return response.toResponseEntity();
+        } catch (Throwable e) {
+            attempts.asMap().remove(key, attempt);
+            attempt.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Snapshot await(String idempotencyKey, Attempt first) {
+        try {
+            return first.response.get(replayTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotentRequestInProgressException(idempotencyKey);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotentRequestInProgressException(idempotencyKey);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("idempotency.requests")
+                .description("Writes carrying an Idempotency-Key, by how they were answered")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @RequiredArgsConstructor
+    @EqualsAndHashCode
+    private static class Key {
+
+        private final String operation;
+
+        private final String idempotencyKey;
+    }
+
+    @RequiredArgsConstructor
+    private static class Attempt {
+
+        private final Object request;
+
+        private final CompletableFuture<Snapshot> response;
+    }
+
+    /**
+     * The first response under a key. Every caller gets its own {@link ResponseEntity} built from it
+     * with read-only headers; the body is shared, and only ever read by the message converters.
+     */
+    @RequiredArgsConstructor
+    private static class Snapshot {
+
+        private final int status;
+
+        private final HttpHeaders headers;
+
+        private final Object body;
+
+        static Snapshot of(ResponseEntity<?> response) {
+            HttpHeaders headers = new HttpHeaders();
+            response.getHeaders().forEach((name, values) -> headers.put(name, List.copyOf(values)));
+            return new Snapshot(response.getStatusCodeValue(), HttpHeaders.readOnlyHttpHeaders(headers),
+                    response.getBody());
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> ResponseEntity<T> toResponseEntity() {
+            return ResponseEntity.status(status)
+                    .headers(headers)
+                    .body((T) body);
+        }
+    }
+}
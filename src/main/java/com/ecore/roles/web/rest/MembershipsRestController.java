@@ -1,17 +1,35 @@
 package com.ecore.roles.web.rest;
 
+import com.ecore.roles.configuration.MembershipsConfigurationProperties;
 import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.MembershipEvent;
 import com.ecore.roles.service.MembershipsService;
+import com.ecore.roles.service.events.MembershipEventStream;
 import com.ecore.roles.web.MembershipsApi;
+import com.ecore.roles.web.dto.MembershipAssignmentDto;
+import com.ecore.roles.web.dto.MembershipCountsDto;
 import com.ecore.roles.web.dto.MembershipDto;
+import com.ecore.roles.web.dto.MembershipEventDto;
+import com.ecore.roles.web.dto.PageDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 import static com.ecore.roles.web.dto.MembershipDto.fromModel;
 
@@ -20,18 +38,48 @@ import static com.ecore.roles.web.dto.MembershipDto.fromModel;
 @RequestMapping(value = "/v1/roles/memberships")
 public class MembershipsRestController implements MembershipsApi {
 
+    /**
+     * Sent instead of events purged from the outbox: the subscriber has to re-read the current state,
+     * then apply the events that follow.
+     */
+    public static final String RESET_EVENT = "RESET";
+
     private final MembershipsService membershipsService;
+    private final MembershipEventStream membershipEventStream;
+    private final IdempotentRequests idempotentRequests;
+    private final MembershipsConfigurationProperties membershipsConfigurationProperties;
+    private final ObjectMapper objectMapper;
 
     @Override
     @PostMapping(
             consumes = {"application/json"},
             produces = {"application/json"})
     public ResponseEntity<MembershipDto> assignRoleToMembership(
+            @RequestHeader(name = IdempotentRequests.HEADER, required = false) String idempotencyKey,
             @NotNull @Valid @RequestBody MembershipDto membershipDto) {
-        Membership membership = membershipsService.assignRoleToMembership(membershipDto.toModel());
+        return idempotentRequests.execute(idempotencyKey, "assignRoleToMembership", membershipDto, () -> {
+            Membership membership = membershipsService.assignRoleToMembership(membershipDto.toModel());
+            return ResponseEntity
+                    .status(200)
+                    .body(fromModel(membership));
+        });
+    }
+
+    @Override
+    @PostMapping(
+            path = "/bulk",
+            consumes = {"application/json"},
+            produces = {"application/json"})
+    public ResponseEntity<List<MembershipAssignmentDto>> assignRolesToMemberships(
+            @NotNull @RequestBody List<MembershipDto> membershipDtos) {
+        List<Membership> memberships = membershipDtos.stream()
+                .map(membershipDto -> membershipDto == null ? null : membershipDto.toModel())
+                .collect(Collectors.toList());
         return ResponseEntity
                 .status(200)
-                .body(fromModel(membership));
+                .body(membershipsService.assignRolesToMemberships(memberships).stream()
+                        .map(MembershipAssignmentDto::fromModel)
+                        .collect(Collectors.toList()));
     }
 
     @Override
@@ -55,4 +103,214 @@ public class MembershipsRestController implements MembershipsApi {
                 .body(newMembershipDto);
     }
 
+    @Override
+    @PostMapping(
+            path = "/search/page",
+            produces = {"application/json"})
+    public ResponseEntity<PageDto<MembershipDto>> getMembershipsPage(
+            @RequestParam UUID roleId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        int pageSize = PageDto.limit(limit);
+        List<MembershipDto> memberships =
+                membershipsService.getMemberships(roleId, PageDto.decodeCursor(cursor), pageSize).stream()
+                        .map(MembershipDto::fromModel)
+                        .collect(Collectors.toList());
+        return ResponseEntity
+                .status(200)
+                .body(PageDto.of(memberships, pageSize, MembershipDto::getId));
+    }
+
+    @Override
+    @PostMapping(
+            path = "/search/page",
+            params = {"roleId", "expand=true"},
+            produces = {"application/json"})
+    public CompletableFuture<ResponseEntity<PageDto<MembershipDto>>> getExpandedMembershipsPage(
+            @RequestParam UUID roleId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        int pageSize = PageDto.limit(limit);
+        return membershipsService.getMembershipDetails(roleId, PageDto.decodeCursor(cursor), pageSize)
+                .thenApply(details -> ResponseEntity
+                        .status(200)
+                        .body(PageDto.of(details.stream()
+                                .map(MembershipDto::fromModel)
+                                .collect(Collectors.toList()), pageSize, MembershipDto::getId)));
+    }
+
+    @Override
+    @PostMapping(
+            path = "/search/page",
+            params = "userId",
+            produces = {"application/json"})
+    public ResponseEntity<PageDto<MembershipDto>> getMembershipsPageByUser(
+            @RequestParam UUID userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        int pageSize = PageDto.limit(limit);
+        List<MembershipDto> memberships = membershipsService
+                .getMembershipsByUser(userId, PageDto.decodeCursor(cursor), pageSize).stream()
+                .map(MembershipDto::fromModel)
+                .collect(Collectors.toList());
+        return ResponseEntity
+                .status(200)
+                .body(PageDto.of(memberships, pageSize, MembershipDto::getId));
+    }
+
+    @Override
+    @PostMapping(
+            path = "/search/page",
+            params = {"teamId", "!userId"},
+            produces = {"application/json"})
+    public ResponseEntity<PageDto<MembershipDto>> getMembershipsPageByTeam(
+            @RequestParam UUID teamId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        int pageSize = PageDto.limit(limit);
+        List<MembershipDto> memberships = membershipsService
+                .getMembershipsByTeam(teamId, PageDto.decodeCursor(cursor), pageSize).stream()
+                .map(MembershipDto::fromModel)
+                .collect(Collectors.toList());
+        return ResponseEntity
+                .status(200)
+                .body(PageDto.of(memberships, pageSize, MembershipDto::getId));
+    }
+
+    @Override
+    @PostMapping(
+            path = "/counts",
+            produces = {"application/json"})
+    public ResponseEntity<MembershipCountsDto> countMemberships(
+            @RequestParam(required = false) List<UUID> teamIds) {
+        return ResponseEntity
+                .status(200)
+                .body(MembershipCountsDto.builder()
+                        .roles(membershipsService.countMembershipsByRole())
+                        .teams(membershipsService.countMembershipsByTeam(
+                                teamIds == null ? Collections.emptyList() : teamIds))
+                        .build());
+    }
+
+    @Override
+    @PostMapping(
+            path = "/search/stream",
+            produces = {"application/x-ndjson"})
+    public ResponseEntity<StreamingResponseBody> streamMemberships(
+            @RequestParam UUID roleId) {
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writerFor(MembershipDto.class)
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                membershipsService.streamMemberships(roleId, membership -> {
+                    try {
+                        writer.write(fromModel(membership));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity
+                .status(200)
+                .body(body);
+    }
+
+    @Override
+    @GetMapping(
+            path = "/events",
+            produces = {"text/event-stream"})
+    public ResponseEntity<SseEmitter> streamMembershipEvents(
+            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(required = false) Long after) {
+        SseEmitter emitter = new SseEmitter(
+                membershipsConfigurationProperties.getEvents().getSubscriptionTimeout().toMillis());
+        OpenEmitter openEmitter = new OpenEmitter(emitter);
+        MembershipEventStream.Subscription subscription = membershipEventStream.subscribe(
+                lastEventId != null ? lastEventId : after,
+                new MembershipEventStream.Listener() {
+                    @Override
+                    public void onEvent(MembershipEvent event) throws IOException {
+                        openEmitter.send(SseEmitter.event()
+                                .id(String.valueOf(event.getId()))
+                                .name(event.getType().name())
+                                .data(MembershipEventDto.fromModel(event), MediaType.APPLICATION_JSON));
+                    }
+
+                    @Override
+                    public void onHeartbeat() throws IOException {
+                        openEmitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+
+                    @Override
+                    public void onReset(long cursor) throws IOException {
+                        openEmitter.send(SseEmitter.event()
+                                .id(String.valueOf(cursor))
+                                .name(RESET_EVENT)
+                                .data(Map.of("after", cursor), MediaType.APPLICATION_JSON));
+                    }
+
+                    @Override
+                    public void onFailure(IOException error) {
+                        openEmitter.completeWithError(error);
+                    }
+                });
+        emitter.onCompletion(() -> {
+            openEmitter.close();
+            subscription.cancel();
+        });
+        emitter.onTimeout(() -> {
+            openEmitter.close();
+            emitter.complete();
+        });
+        emitter.onError(error -> {
+            openEmitter.close();
+            subscription.cancel();
+        });
+        return ResponseEntity
+                .status(200)
+                .body(emitter);
+    }
+
+    /**
+     * Sends to an emitter only until its response is closed. Spring runs the emitter's completion,
+     * timeout and error callbacks without the lock its sends hold, so a dispatcher thread racing a
+     * dropped connection could otherwise write into a response the container has already recycled
+     * for another request.
+     */
+    private static class OpenEmitter {
+
+        private final SseEmitter emitter;
+
+        // Guarded by emitter, the monitor its own send and complete methods hold.
+        private boolean closed;
+
+        OpenEmitter(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void send(SseEmitter.SseEventBuilder event) throws IOException {
+            synchronized (emitter) {
+                if (closed) {
+                    throw new IOException("Membership event stream is closed");
+                }
+                emitter.send(event);
+            }
+        }
+
+        void completeWithError(Throwable error) {
+            synchronized (emitter) {
+                if (!closed) {
+                    closed = true;
+                    emitter.completeWithError(error);
+                }
+            }
+        }
+
+        void close() {
+            synchronized (emitter) {
+                closed = true;
+            }
+        }
+    }
 }
@@ -3,6 +3,7 @@ package com.ecore.roles.web.rest;
 import com.ecore.roles.model.Role;
 import com.ecore.roles.service.RolesService;
 import com.ecore.roles.web.RolesApi;
+import com.ecore.roles.web.dto.PageDto;
 import com.ecore.roles.web.dto.RoleDto;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -12,6 +13,7 @@ import javax.validation.Valid;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import static com.ecore.roles.web.dto.RoleDto.fromModel;
 
@@ -21,16 +23,18 @@ import static com.ecore.roles.web.dto.RoleDto.fromModel;
 public class RolesRestController implements RolesApi {
 
     private final RolesService rolesService;
+    private final IdempotentRequests idempotentRequests;
 
     @Override
     @PostMapping(
             consumes = {"application/json"},
             produces = {"application/json"})
     public ResponseEntity<RoleDto> createRole(
+            @RequestHeader(name = IdempotentRequests.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody RoleDto role) {
-        return ResponseEntity
+        return idempotentRequests.execute(idempotencyKey, "createRole", role, () -> ResponseEntity
                 .status(200)
-                .body(fromModel(rolesService.CreateRole(role.toModel())));
+                .body(fromModel(rolesService.CreateRole(role.toModel()))));
     }
 
     @Override
@@ -52,6 +56,34 @@ public class RolesRestController implements RolesApi {
                 .body(roleDtoList);
     }
 
+    @Override
+    @PostMapping(
+            path = "/page",
+            produces = {"application/json"})
+    public ResponseEntity<PageDto<RoleDto>> getRolesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        int pageSize = PageDto.limit(limit);
+        List<RoleDto> roles = rolesService.GetRoles(PageDto.decodeCursor(cursor), pageSize).stream()
+                .map(RoleDto::fromModel)
+                .collect(Collectors.toList());
+        return ResponseEntity
+                .status(200)
+                .body(PageDto.of(roles, pageSize, RoleDto::getId));
+    }
+
+    @Override
+    @GetMapping(
+            path = "/search",
+            produces = {"application/json"})
+    public ResponseEntity<RoleDto> getRole(
+            @RequestParam(name = "teamMemberId") UUID userId,
+            @RequestParam UUID teamId) {
+        return ResponseEntity
+                .status(200)
+                .body(fromModel(rolesService.GetRole(userId, teamId)));
+    }
+
     @Override
     @PostMapping(
             path = "/{roleId}",
@@ -1,17 +1,23 @@
 package com.ecore.roles.web.rest;
 
 import com.ecore.roles.service.TeamsService;
+import com.ecore.roles.service.index.TeamDirectory;
 import com.ecore.roles.web.TeamsApi;
+import com.ecore.roles.web.dto.LookupDto;
+import com.ecore.roles.web.dto.TeamDirectoryDto;
 import com.ecore.roles.web.dto.TeamDto;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.validation.constraints.NotNull;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import static com.ecore.roles.web.dto.TeamDto.fromModel;
@@ -22,27 +28,56 @@ import static com.ecore.roles.web.dto.TeamDto.fromModel;
 public class TeamsRestController implements TeamsApi {
 
     private final TeamsService teamsService;
+    private final TeamDirectory teamDirectory;
 
     @Override
     @PostMapping(
             produces = {"application/json"})
-    public ResponseEntity<List<TeamDto>> getTeams() {
-        return ResponseEntity
-                .status(200)
-                .body(teamsService.getTeams().stream()
-                        .map(TeamDto::fromModel)
-                        .collect(Collectors.toList()));
+    public CompletableFuture<ResponseEntity<List<TeamDto>>> getTeams() {
+        return teamsService.getTeamsAsync()
+                .thenApply(teams -> ResponseEntity
+                        .status(200)
+                        .body(teams.stream()
+                                .map(TeamDto::fromModel)
+                                .collect(Collectors.toList())));
     }
 
     @Override
     @PostMapping(
             path = "/{teamId}",
             produces = {"application/json"})
-    public ResponseEntity<TeamDto> getTeam(
+    public CompletableFuture<ResponseEntity<TeamDto>> getTeam(
             @PathVariable UUID teamId) {
+        return teamsService.getTeamAsync(teamId)
+                .thenApply(team -> ResponseEntity
+                        .status(200)
+                        .body(fromModel(team)));
+    }
+
+    @Override
+    @PostMapping(
+            path = "/bulk",
+            consumes = {"application/json"},
+            produces = {"application/json"})
+    public CompletableFuture<ResponseEntity<List<LookupDto<TeamDto>>>> lookupTeams(
+            @NotNull @RequestBody List<UUID> teamIds) {
+        return teamsService.lookupTeams(teamIds)
+                .thenApply(lookups -> ResponseEntity
+                        .status(200)
+                        .body(lookups.stream()
+                                .map(lookup -> LookupDto.fromModel(lookup, TeamDto::fromModel))
+                                .collect(Collectors.toList())));
+    }
+
+    @Override
+    @PostMapping(
+            path = "/directory/refresh",
+            produces = {"application/json"})
+    public ResponseEntity<TeamDirectoryDto> refreshTeamDirectory() {
+        teamDirectory.refresh();
         return ResponseEntity
                 .status(200)
-                .body(fromModel(teamsService.getTeam(teamId)));
+                .body(TeamDirectoryDto.fromModel(teamDirectory));
     }
 
 }
@@ -2,16 +2,20 @@ package com.ecore.roles.web.rest;
 
 import com.ecore.roles.service.UsersService;
 import com.ecore.roles.web.UsersApi;
+import com.ecore.roles.web.dto.LookupDto;
 import com.ecore.roles.web.dto.UserDto;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.validation.constraints.NotNull;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import static com.ecore.roles.web.dto.UserDto.fromModel;
@@ -26,22 +30,39 @@ public class UsersRestController implements UsersApi {
     @Override
     @PostMapping(
             produces = {"application/json"})
-    public ResponseEntity<List<UserDto>> getUsers() {
-        return ResponseEntity
-                .status(200)
-                .body(usersService.getUsers().stream()
-                        .map(UserDto::fromModel)
-                        .collect(Collectors.toList()));
+    public CompletableFuture<ResponseEntity<List<UserDto>>> getUsers() {
+        return usersService.getUsersAsync()
+                .thenApply(users -> ResponseEntity
+                        .status(200)
+                        .body(users.stream()
+                                .map(UserDto::fromModel)
+                                .collect(Collectors.toList())));
     }
 
     @Override
     @PostMapping(
             path = "/{userId}",
             produces = {"application/json"})
-    public ResponseEntity<UserDto> getUser(
+    public CompletableFuture<ResponseEntity<UserDto>> getUser(
             @PathVariable UUID userId) {
-        return ResponseEntity
-                .status(200)
-                .body(fromModel(usersService.getUser(userId)));
+        return usersService.getUserAsync(userId)
+                .thenApply(user -> ResponseEntity
+                        .status(200)
+                        .body(fromModel(user)));
+    }
+
+    @Override
+    @PostMapping(
+            path = "/bulk",
+            consumes = {"application/json"},
+            produces = {"application/json"})
+    public CompletableFuture<ResponseEntity<List<LookupDto<UserDto>>>> lookupUsers(
+            @NotNull @RequestBody List<UUID> userIds) {
+        return usersService.lookupUsers(userIds)
+                .thenApply(lookups -> ResponseEntity
+                        .status(200)
+                        .body(lookups.stream()
+                                .map(lookup -> LookupDto.fromModel(lookup, UserDto::fromModel))
+                                .collect(Collectors.toList())));
     }
 }
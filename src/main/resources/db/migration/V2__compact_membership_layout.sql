@@ -0,0 +1,15 @@
+alter table membership
+    drop constraint UKovs2w4ph57xdtsrc5y3iqjvh1;
+
+alter table membership
+    alter column team_id binary(16) not null;
+
+alter table membership
+    alter column user_id binary(16) not null;
+
+alter table membership
+    add constraint uk_membership_team_user
+        unique (team_id, user_id);
+
+create index idx_membership_role
+    on membership (role_id, id);
@@ -0,0 +1,5 @@
+create index idx_membership_user
+    on membership (user_id, id);
+
+create index idx_membership_team
+    on membership (team_id, id);
@@ -0,0 +1,25 @@
+create table role_membership_count
+(
+    role_id varchar(255) not null
+        primary key,
+    members bigint       not null,
+    constraint fk_role_membership_count_role
+        foreign key (role_id) references role (id)
+);
+
+create table team_membership_count
+(
+    team_id binary(16) not null
+        primary key,
+    members bigint     not null
+);
+
+insert into role_membership_count (role_id, members)
+select role_id, count(*)
+from membership
+group by role_id;
+
+insert into team_membership_count (team_id, members)
+select team_id, count(*)
+from membership
+group by team_id;
@@ -0,0 +1,13 @@
+create table membership_event
+(
+    id            bigint       not null auto_increment
+        primary key,
+    type          varchar(32)  not null,
+    role_id       varchar(255) not null,
+    membership_id varchar(255),
+    user_id       binary(16),
+    team_id       binary(16),
+    created_at    timestamp(3) not null
+);
+
+create index idx_membership_event_created_at on membership_event (created_at);
@@ -0,0 +1,151 @@
+package com.ecore.roles.api;
+
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.Role;
+import com.ecore.roles.repository.MembershipRepository;
+import com.ecore.roles.repository.RoleRepository;
+import com.ecore.roles.service.index.MembershipCounts;
+import com.ecore.roles.utils.RestAssuredHelper;
+import com.ecore.roles.web.dto.MembershipDto;
+import com.ecore.roles.web.dto.RoleDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.ecore.roles.utils.MockUtils.mockGetTeamById;
+import static com.ecore.roles.utils.RestAssuredHelper.createMembership;
+import static com.ecore.roles.utils.RestAssuredHelper.createRole;
+import static com.ecore.roles.utils.TestData.DEFAULT_MEMBERSHIP;
+import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM;
+import static com.ecore.roles.utils.TestData.UUID_1;
+import static java.lang.String.format;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class IdempotencyApiTest {
+
+    private static final int CALLERS = 16;
+
+    private final MembershipRepository membershipRepository;
+    private final RoleRepository roleRepository;
+    private final MembershipCounts membershipCounts;
+    private final RestTemplate restTemplate;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    public IdempotencyApiTest(
+            MembershipRepository membershipRepository,
+            RoleRepository roleRepository,
+            MembershipCounts membershipCounts,
+            RestTemplate restTemplate) {
+        this.membershipRepository = membershipRepository;
+        this.roleRepository = roleRepository;
+        this.membershipCounts = membershipCounts;
+        this.restTemplate = restTemplate;
+    }
+
+    @BeforeEach
+    void setUp() {
+        MockRestServiceServer mockServer = MockRestServiceServer.createServer(restTemplate);
+        mockGetTeamById(mockServer, DEFAULT_MEMBERSHIP().getTeamId(), ORDINARY_CORAL_LYNX_TEAM());
+        RestAssuredHelper.setUp(port);
+        membershipRepository.deleteAll();
+        membershipCounts.reconcile();
+    }
+
+    @Test
+    void shouldCreateOneMembershipForConcurrentRetriesWithTheSameKey() throws Exception {
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        Membership membership = DEFAULT_MEMBERSHIP();
+
+        List<MembershipDto> responses = concurrently(() -> createMembership(membership, idempotencyKey)
+                .statusCode(200)
+                .extract().as(MembershipDto.class));
+
+        assertThat(responses).extracting(MembershipDto::getId).doesNotContainNull().containsOnly(
+                responses.get(0).getId());
+        assertThat(membershipRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCreateOneRoleForConcurrentRetriesWithTheSameKey() throws Exception {
+        String idempotencyKey = UUID.randomUUID().toString();
+        Role role = Role.builder().name("Idempotent " + idempotencyKey).build();
+
+        List<RoleDto> responses = concurrently(() -> createRole(role, idempotencyKey)
+                .statusCode(200)
+                .extract().as(RoleDto.class));
+
+        assertThat(responses).extracting(RoleDto::getId).doesNotContainNull().containsOnly(
+                responses.get(0).getId());
+        assertThat(roleRepository.findByName(role.getName())).isPresent();
+    }
+
+    @Test
+    void shouldReplayTheFirstResponseInsteadOfReportingADuplicate() {
+        String idempotencyKey = UUID.randomUUID().toString();
+        MembershipDto first = createMembership(DEFAULT_MEMBERSHIP(), idempotencyKey)
+                .statusCode(200)
+                .extract().as(MembershipDto.class);
+
+        MembershipDto retried = createMembership(DEFAULT_MEMBERSHIP(), idempotencyKey)
+                .statusCode(200)
+                .extract().as(MembershipDto.class);
+
+        assertThat(retried.getId()).isEqualTo(first.getId());
+        createMembership(DEFAULT_MEMBERSHIP(), UUID.randomUUID().toString())
+                .validate(400, "Membership already exists");
+    }
+
+    @Test
+    void shouldRejectAKeyReusedForADifferentRequest() {
+        String idempotencyKey = UUID.randomUUID().toString();
+        createMembership(DEFAULT_MEMBERSHIP(), idempotencyKey).statusCode(200);
+        Membership other = DEFAULT_MEMBERSHIP();
+        other.setUserId(UUID_1);
+
+        createMembership(other, idempotencyKey)
+                .validate(422, format("Idempotency-Key %s was already used for a different request",
+                        idempotencyKey));
+        assertThat(membershipRepository.count()).isEqualTo(1);
+    }
+
+    private static <T> List<T> concurrently(Callable<T> request) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return request.call();
+                }));
+            }
+            start.countDown();
+            List<T> responses = new ArrayList<>();
+            for (Future<T> future : futures) {
+                responses.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return responses;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.ecore.roles.api;
+
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.Role;
+import com.ecore.roles.repository.MembershipRepository;
+import com.ecore.roles.service.events.MembershipEventStream;
+import com.ecore.roles.service.index.MembershipCounts;
+import com.ecore.roles.utils.RestAssuredHelper;
+import com.ecore.roles.web.dto.MembershipEventDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.ecore.roles.model.MembershipEvent.Type.MEMBERSHIP_CREATED;
+import static com.ecore.roles.model.MembershipEvent.Type.ROLE_CREATED;
+import static com.ecore.roles.utils.RestAssuredHelper.createMemberships;
+import static com.ecore.roles.utils.RestAssuredHelper.createRole;
+import static com.ecore.roles.utils.TestData.DEVELOPER_ROLE;
+import static com.ecore.roles.utils.TestData.DEVELOPER_ROLE_UUID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class MembershipEventsApiTest {
+
+    private static final int SUBSCRIBERS = 64;
+    private static final int MEMBERSHIPS = 1_000;
+
+    private final MembershipRepository membershipRepository;
+    private final MembershipCounts membershipCounts;
+    private final MembershipEventStream membershipEventStream;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+    // One reader per subscriber, so a subscriber that is not being read cannot stall the others.
+    private final ExecutorService readers = Executors.newFixedThreadPool(SUBSCRIBERS);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    public MembershipEventsApiTest(
+            MembershipRepository membershipRepository,
+            MembershipCounts membershipCounts,
+            MembershipEventStream membershipEventStream,
+            ObjectMapper objectMapper) {
+        this.membershipRepository = membershipRepository;
+        this.membershipCounts = membershipCounts;
+        this.membershipEventStream = membershipEventStream;
+        this.objectMapper = objectMapper;
+    }
+
+    @BeforeEach
+    void setUp() {
+        RestAssuredHelper.setUp(port);
+        membershipRepository.deleteAll();
+        membershipCounts.reconcile();
+        membershipEventStream.poll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        readers.shutdownNow();
+    }
+
+    @Test
+    void shouldStreamRoleAndMembershipInsertsFromAnOffset() throws Exception {
+        long offset = membershipEventStream.getHead();
+        createRole(Role.builder().name("Event Tester " + UUID.randomUUID()).build())
+                .statusCode(200);
+        createMemberships(List.of(membershipOf(UUID.randomUUID()), membershipOf(UUID.randomUUID())))
+                .statusCode(200);
+        membershipEventStream.poll();
+
+        List<MembershipEventDto> events = subscribe("after=" + offset, 3).get(30, TimeUnit.SECONDS);
+
+        assertThat(events).extracting(MembershipEventDto::getType)
+                .containsExactly(ROLE_CREATED, MEMBERSHIP_CREATED, MEMBERSHIP_CREATED);
+        assertThat(events).extracting(MembershipEventDto::getId)
+                .isSorted()
+                .allMatch(id -> id > offset);
+        assertThat(events.get(1).getRoleId()).isEqualTo(DEVELOPER_ROLE_UUID);
+        assertThat(events.get(1).getMembershipId()).isNotNull();
+    }
+
+    @Test
+    void shouldDeliverEveryInsertToManyConcurrentSubscribers() throws Exception {
+        long offset = membershipEventStream.getHead();
+        // Subscribing from an explicit offset means no event is missed while the connections open.
+        List<CompletableFuture<List<MembershipEventDto>>> subscribers = IntStream.range(0, SUBSCRIBERS)
+                .mapToObj(i -> subscribe("after=" + offset, MEMBERSHIPS))
+                .collect(Collectors.toList());
+
+        long started = System.nanoTime();
+        createMemberships(IntStream.range(0, MEMBERSHIPS)
+                .mapToObj(i -> membershipOf(UUID.randomUUID()))
+                .collect(Collectors.toList()))
+                        .statusCode(200);
+
+        List<List<MembershipEventDto>> received = new ArrayList<>();
+        for (CompletableFuture<List<MembershipEventDto>> subscriber : subscribers) {
+            received.add(subscriber.get(60, TimeUnit.SECONDS));
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        List<Long> expectedIds = received.get(0).stream()
+                .map(MembershipEventDto::getId)
+                .collect(Collectors.toList());
+        assertThat(expectedIds).hasSize(MEMBERSHIPS).isSorted().doesNotHaveDuplicates();
+        for (List<MembershipEventDto> events : received) {
+            assertThat(events).extracting(MembershipEventDto::getId).isEqualTo(expectedIds);
+        }
+        assertThat(SUBSCRIBERS * MEMBERSHIPS / seconds)
+                .as("events delivered per second across all subscribers")
+                .isGreaterThan(1_000);
+    }
+
+    /**
+     * Opens a subscription and completes with its first {@code count} events.
+     */
+    private CompletableFuture<List<MembershipEventDto>> subscribe(String query, int count) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + port + "/v1/roles/memberships/events?" + query))
+                .header("Accept", "text/event-stream")
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofLines())
+                .thenApplyAsync(response -> {
+                    assertThat(response.statusCode()).isEqualTo(200);
+                    try (Stream<String> lines = response.body()) {
+                        return lines.filter(line -> line.startsWith("data:"))
+                                .limit(count)
+                                .map(line -> read(line.substring("data:".length())))
+                                .collect(Collectors.toList());
+                    }
+                }, readers);
+    }
+
+    private MembershipEventDto read(String json) {
+        try {
+            return objectMapper.readValue(json, MembershipEventDto.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Membership membershipOf(UUID userId) {
+        return Membership.builder()
+                .role(DEVELOPER_ROLE())
+                .userId(userId)
+                .teamId(UUID.randomUUID())
+                .build();
+    }
+}
@@ -3,8 +3,13 @@ package com.ecore.roles.api;
 import com.ecore.roles.model.Membership;
 import com.ecore.roles.model.Role;
 import com.ecore.roles.repository.MembershipRepository;
+import com.ecore.roles.service.index.MembershipCounts;
 import com.ecore.roles.utils.RestAssuredHelper;
+import com.ecore.roles.web.dto.MembershipAssignmentDto;
+import com.ecore.roles.web.dto.MembershipCountsDto;
 import com.ecore.roles.web.dto.MembershipDto;
+import com.ecore.roles.web.dto.PageDto;
+import io.restassured.common.mapper.TypeRef;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,17 +18,27 @@ import org.springframework.boot.web.server.LocalServerPort;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.UUID;
+
 import static com.ecore.roles.utils.MockUtils.mockGetTeamById;
+import static com.ecore.roles.utils.RestAssuredHelper.countMemberships;
 import static com.ecore.roles.utils.RestAssuredHelper.createMembership;
+import static com.ecore.roles.utils.RestAssuredHelper.createMemberships;
 import static com.ecore.roles.utils.RestAssuredHelper.getMemberships;
+import static com.ecore.roles.utils.RestAssuredHelper.getMembershipsPage;
+import static com.ecore.roles.utils.RestAssuredHelper.getMembershipsPageByTeam;
+import static com.ecore.roles.utils.RestAssuredHelper.getMembershipsPageByUser;
+import static com.ecore.roles.utils.RestAssuredHelper.streamMemberships;
 import static com.ecore.roles.utils.TestData.*;
 import static java.lang.String.format;
+import static java.util.List.of;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 public class MembershipsApiTests {
 
     private final MembershipRepository membershipRepository;
+    private final MembershipCounts membershipCounts;
     private final RestTemplate restTemplate;
 
     private MockRestServiceServer mockServer;
@@ -32,8 +47,12 @@ public class MembershipsApiTests {
     private int port;
 
     @Autowired
-    public MembershipsApiTests(MembershipRepository membershipRepository, RestTemplate restTemplate) {
+    public MembershipsApiTests(
+            MembershipRepository membershipRepository,
+            MembershipCounts membershipCounts,
+            RestTemplate restTemplate) {
         this.membershipRepository = membershipRepository;
+        this.membershipCounts = membershipCounts;
         this.restTemplate = restTemplate;
     }
 
@@ -42,6 +61,7 @@ public class MembershipsApiTests {
         mockServer = MockRestServiceServer.createServer(restTemplate);
         RestAssuredHelper.setUp(port);
         membershipRepository.deleteAll();
+        membershipCounts.reconcile();
     }
 
     @Test
@@ -161,6 +181,139 @@ public class MembershipsApiTests {
                 .validate(400, "Bad Request");
     }
 
+    @Test
+    void shouldAssignRolesToMembershipsInBulk() {
+        Membership expectedMembership = DEFAULT_MEMBERSHIP();
+        Membership unknownRoleMembership = DEFAULT_MEMBERSHIP();
+        unknownRoleMembership.setUserId(UUID_1);
+        unknownRoleMembership.setRole(Role.builder().id(UUID_1).build());
+
+        MembershipAssignmentDto[] results = createMemberships(
+                of(expectedMembership, DEFAULT_MEMBERSHIP(), unknownRoleMembership))
+                        .statusCode(200)
+                        .extract().as(MembershipAssignmentDto[].class);
+
+        assertThat(results).extracting(MembershipAssignmentDto::getStatus).containsExactly(200, 400, 404);
+        assertThat(results[0].getMembership()).isEqualTo(MembershipDto.fromModel(expectedMembership));
+        assertThat(results[1].getError()).isEqualTo("Membership already exists");
+        assertThat(results[2].getError()).isEqualTo(format("Role %s not found", UUID_1));
+        assertThat(membershipRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldPageThroughMembershipsWithCursor() {
+        createMemberships(of(membershipOf(UUID_1), membershipOf(UUID_2), membershipOf(UUID_3)))
+                .statusCode(200);
+
+        PageDto<MembershipDto> firstPage = getMembershipsPage(DEVELOPER_ROLE_UUID, null, 2)
+                .statusCode(200)
+                .extract().as(new TypeRef<>() {});
+        PageDto<MembershipDto> lastPage =
+                getMembershipsPage(DEVELOPER_ROLE_UUID, firstPage.getNextCursor(), 2)
+                        .statusCode(200)
+                        .extract().as(new TypeRef<>() {});
+
+        assertThat(firstPage.getItems()).hasSize(2);
+        assertThat(firstPage.getNextCursor()).isNotNull();
+        assertThat(lastPage.getItems()).hasSize(1);
+        assertThat(lastPage.getNextCursor()).isNull();
+        assertThat(lastPage.getItems()).doesNotContainAnyElementsOf(firstPage.getItems());
+    }
+
+    @Test
+    void shouldFailToPageMembershipsWhenCursorIsInvalid() {
+        getMembershipsPage(DEVELOPER_ROLE_UUID, "not-a-cursor", 2)
+                .validate(400, "Invalid 'PageDto' object");
+    }
+
+    @Test
+    void shouldPageThroughMembershipsOfAUserAcrossTeams() {
+        Membership otherTeam = DEFAULT_MEMBERSHIP();
+        otherTeam.setTeamId(UUID_4);
+        createMemberships(of(DEFAULT_MEMBERSHIP(), otherTeam, membershipOf(UUID_1))).statusCode(200);
+
+        PageDto<MembershipDto> firstPage = getMembershipsPageByUser(GIANNI_USER_UUID, null, 1)
+                .statusCode(200)
+                .extract().as(new TypeRef<>() {});
+        PageDto<MembershipDto> secondPage =
+                getMembershipsPageByUser(GIANNI_USER_UUID, firstPage.getNextCursor(), 1)
+                        .statusCode(200)
+                        .extract().as(new TypeRef<>() {});
+
+        assertThat(firstPage.getItems()).hasSize(1);
+        assertThat(secondPage.getItems()).hasSize(1);
+        assertThat(secondPage.getItems()).doesNotContainAnyElementsOf(firstPage.getItems());
+        assertThat(getMembershipsPageByUser(GIANNI_USER_UUID, secondPage.getNextCursor(), 1)
+                .statusCode(200)
+                .extract().<PageDto<MembershipDto>>as(new TypeRef<>() {}).getItems()).isEmpty();
+    }
+
+    @Test
+    void shouldPageThroughMembershipsOfATeam() {
+        Membership otherTeam = DEFAULT_MEMBERSHIP();
+        otherTeam.setTeamId(UUID_4);
+        createMemberships(of(membershipOf(UUID_1), membershipOf(UUID_2), otherTeam)).statusCode(200);
+
+        PageDto<MembershipDto> page = getMembershipsPageByTeam(ORDINARY_CORAL_LYNX_TEAM_UUID, null, 10)
+                .statusCode(200)
+                .extract().as(new TypeRef<>() {});
+
+        assertThat(page.getItems()).extracting(MembershipDto::getUserId)
+                .containsExactlyInAnyOrder(UUID_1, UUID_2);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void shouldCountMembershipsPerRoleAndTeam() {
+        Membership otherTeam = DEFAULT_MEMBERSHIP();
+        otherTeam.setTeamId(UUID_4);
+        createMemberships(of(membershipOf(UUID_1), membershipOf(UUID_2), otherTeam)).statusCode(200);
+
+        MembershipCountsDto counts = countMemberships(of(ORDINARY_CORAL_LYNX_TEAM_UUID, UUID_4, UUID_3))
+                .statusCode(200)
+                .extract().as(MembershipCountsDto.class);
+
+        assertThat(counts.getRoles())
+                .containsEntry(DEVELOPER_ROLE_UUID, 3L)
+                .containsEntry(TESTER_ROLE_UUID, 0L);
+        assertThat(counts.getTeams())
+                .containsEntry(ORDINARY_CORAL_LYNX_TEAM_UUID, 2L)
+                .containsEntry(UUID_4, 1L)
+                .containsEntry(UUID_3, 0L);
+    }
+
+    @Test
+    void shouldRepairCountsOfMembershipsRemovedOutsideTheApi() {
+        createMemberships(of(membershipOf(UUID_1), membershipOf(UUID_2))).statusCode(200);
+        membershipRepository.deleteAll();
+
+        assertThat(membershipCounts.reconcile()).isEqualTo(2);
+
+        MembershipCountsDto counts = countMemberships(of(ORDINARY_CORAL_LYNX_TEAM_UUID))
+                .statusCode(200)
+                .extract().as(MembershipCountsDto.class);
+        assertThat(counts.getRoles()).containsEntry(DEVELOPER_ROLE_UUID, 0L);
+        assertThat(counts.getTeams()).containsEntry(ORDINARY_CORAL_LYNX_TEAM_UUID, 0L);
+    }
+
+    @Test
+    void shouldStreamMembershipsAsNdjson() {
+        createMemberships(of(membershipOf(UUID_1), membershipOf(UUID_2))).statusCode(200);
+
+        String body = streamMemberships(DEVELOPER_ROLE_UUID)
+                .statusCode(200)
+                .extract().asString();
+
+        assertThat(body.split("\\n")).hasSize(2)
+                .allSatisfy(line -> assertThat(line).contains(DEVELOPER_ROLE_UUID.toString()));
+    }
+
+    private static Membership membershipOf(UUID userId) {
+        Membership membership = DEFAULT_MEMBERSHIP();
+        membership.setUserId(userId);
+        return membership;
+    }
+
     private MembershipDto createDefaultMembership() {
         Membership expectedMembership = DEFAULT_MEMBERSHIP();
         mockGetTeamById(mockServer, expectedMembership.getTeamId(), ORDINARY_CORAL_LYNX_TEAM());
@@ -0,0 +1,69 @@
+package com.ecore.roles.api;
+
+import com.ecore.roles.utils.RestAssuredHelper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.UUID;
+
+import static com.ecore.roles.utils.MockUtils.mockGetTeamById;
+import static com.ecore.roles.utils.RestAssuredHelper.getRole;
+import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM;
+import static io.restassured.RestAssured.when;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@AutoConfigureMetrics
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class MetricsApiTest {
+
+    private final RestTemplate restTemplate;
+
+    private MockRestServiceServer mockServer;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    public MetricsApiTest(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    @BeforeEach
+    void setUp() {
+        mockServer = MockRestServiceServer.createServer(restTemplate);
+        RestAssuredHelper.setUp(port);
+    }
+
+    @Test
+    void shouldExposeLatencyHistogramsAndDomainCountersToPrometheus() {
+        UUID teamId = UUID.randomUUID();
+        mockGetTeamById(mockServer, teamId, ORDINARY_CORAL_LYNX_TEAM());
+        getRole(UUID.randomUUID(), teamId)
+                .validate(404, "Membership not found");
+
+        String metrics = when()
+                .get("/actuator/prometheus")
+                .then()
+                .statusCode(200)
+                .extract().asString();
+
+        assertThat(metrics)
+                .contains(
+                        "http_server_requests_seconds_bucket{exception=\"ResourceNotFoundException\",method=\"GET\","
+                                + "outcome=\"CLIENT_ERROR\",status=\"404\",uri=\"/v1/roles/search\"")
+                .contains("http_client_requests_seconds_bucket{clientName=\"test.com\",method=\"GET\","
+                        + "outcome=\"SUCCESS\",status=\"200\",uri=\"/teams/{id}\"")
+                .contains(
+                        "spring_data_repository_invocations_seconds_bucket{exception=\"None\",method=\"streamAll\","
+                                + "repository=\"MembershipCursorRepository\",state=\"SUCCESS\"")
+                .contains("memberships_created_total")
+                .contains("memberships_rejected_total{reason=\"duplicate\",}")
+                .contains("roles_not_found_total");
+    }
+}
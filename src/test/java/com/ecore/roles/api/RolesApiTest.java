@@ -4,22 +4,29 @@ import com.ecore.roles.model.Membership;
 import com.ecore.roles.model.Role;
 import com.ecore.roles.repository.RoleRepository;
 import com.ecore.roles.utils.RestAssuredHelper;
+import com.ecore.roles.web.dto.PageDto;
 import com.ecore.roles.web.dto.RoleDto;
+import io.restassured.common.mapper.TypeRef;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import static com.ecore.roles.utils.MockUtils.mockGetTeamById;
 import static com.ecore.roles.utils.RestAssuredHelper.createMembership;
+import static com.ecore.roles.utils.RestAssuredHelper.createMemberships;
 import static com.ecore.roles.utils.RestAssuredHelper.createRole;
 import static com.ecore.roles.utils.RestAssuredHelper.getRole;
 import static com.ecore.roles.utils.RestAssuredHelper.getRoles;
+import static com.ecore.roles.utils.RestAssuredHelper.getRolesPage;
 import static com.ecore.roles.utils.RestAssuredHelper.sendRequest;
 import static com.ecore.roles.utils.TestData.DEFAULT_MEMBERSHIP;
 import static com.ecore.roles.utils.TestData.DEVELOPER_ROLE;
@@ -34,6 +41,8 @@ import static io.restassured.RestAssured.when;
 import static java.lang.String.format;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 public class RolesApiTest {
@@ -114,6 +123,22 @@ public class RolesApiTest {
         assertThat(roles).contains(RoleDto.fromModel(TESTER_ROLE()));
     }
 
+    @Test
+    void shouldPageThroughRolesWithCursor() {
+        PageDto<RoleDto> firstPage = getRolesPage(null, 2)
+                .statusCode(200)
+                .extract().as(new TypeRef<>() {});
+        PageDto<RoleDto> secondPage = getRolesPage(firstPage.getNextCursor(), 2)
+                .statusCode(200)
+                .extract().as(new TypeRef<>() {});
+
+        assertThat(firstPage.getItems()).hasSize(2);
+        assertThat(secondPage.getItems()).isNotEmpty()
+                .doesNotContainAnyElementsOf(firstPage.getItems());
+        assertThat(secondPage.getItems().get(0).getId().toString())
+                .isGreaterThan(firstPage.getItems().get(1).getId().toString());
+    }
+
     @Test
     void shouldGetRoleById() {
         Role expectedRole = DEVELOPER_ROLE();
@@ -141,6 +166,26 @@ public class RolesApiTest {
                 .body("name", equalTo(expectedMembership.getRole().getName()));
     }
 
+    @Test
+    void shouldGetRoleByUserIdAndTeamIdFromMembershipIndex() {
+        Membership expectedMembership = DEFAULT_MEMBERSHIP();
+        expectedMembership.setUserId(UUID.randomUUID());
+        createMemberships(List.of(expectedMembership))
+                .statusCode(200);
+
+        getRole(expectedMembership.getUserId(), expectedMembership.getTeamId())
+                .statusCode(200)
+                .body("name", equalTo(expectedMembership.getRole().getName()));
+    }
+
+    @Test
+    void shouldFailToGetRoleByUserIdAndTeamIdWhenUserHasNoMembership() {
+        mockGetTeamById(mockServer, ORDINARY_CORAL_LYNX_TEAM_UUID, ORDINARY_CORAL_LYNX_TEAM());
+
+        getRole(UUID.randomUUID(), ORDINARY_CORAL_LYNX_TEAM_UUID)
+                .validate(404, "Membership not found");
+    }
+
     @Test
     void shouldFailToGetRoleByUserIdAndTeamIdWhenMissingUserId() {
         getRole(null, ORDINARY_CORAL_LYNX_TEAM_UUID)
@@ -159,4 +204,14 @@ public class RolesApiTest {
         getRole(GIANNI_USER_UUID, UUID_1)
                 .validate(404, format("Team %s not found", UUID_1));
     }
+
+    @Test
+    void shouldFailToGetRoleByUserIdAndTeamIdWhenTeamsServiceDoesNotKnowTheTeam() {
+        UUID teamId = UUID.randomUUID();
+        mockServer.expect(requestTo("http://test.com/teams/" + teamId))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        getRole(GIANNI_USER_UUID, teamId)
+                .validate(404, format("Team %s not found", teamId));
+    }
 }
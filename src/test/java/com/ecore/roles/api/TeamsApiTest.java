@@ -0,0 +1,68 @@
+package com.ecore.roles.api;
+
+import com.ecore.roles.service.index.TeamDirectory;
+import com.ecore.roles.utils.RestAssuredHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+import static com.ecore.roles.utils.MockUtils.mockGetTeams;
+import static com.ecore.roles.utils.RestAssuredHelper.refreshTeamDirectory;
+import static com.ecore.roles.utils.TestData.GIANNI_USER_UUID;
+import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM;
+import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM_UUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class TeamsApiTest {
+
+    private final RestTemplate restTemplate;
+    private final TeamDirectory teamDirectory;
+
+    private MockRestServiceServer mockServer;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    public TeamsApiTest(RestTemplate restTemplate, TeamDirectory teamDirectory) {
+        this.restTemplate = restTemplate;
+        this.teamDirectory = teamDirectory;
+    }
+
+    @BeforeEach
+    void setUp() {
+        mockServer = MockRestServiceServer.createServer(restTemplate);
+        RestAssuredHelper.setUp(port);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // The application context is shared with the other API tests, which expect an empty directory.
+        mockServer = MockRestServiceServer.createServer(restTemplate);
+        mockGetTeams(mockServer, List.of());
+        teamDirectory.refresh();
+    }
+
+    @Test
+    void shouldRefreshTeamDirectoryOnDemand() {
+        mockGetTeams(mockServer, List.of(ORDINARY_CORAL_LYNX_TEAM()));
+
+        refreshTeamDirectory()
+                .statusCode(200)
+                .body("teams", equalTo(1))
+                .body("syncedAt", notNullValue());
+
+        assertThat(teamDirectory.isMember(ORDINARY_CORAL_LYNX_TEAM_UUID, GIANNI_USER_UUID)).isTrue();
+        assertThat(teamDirectory.getTeamIds(GIANNI_USER_UUID)).containsExactly(ORDINARY_CORAL_LYNX_TEAM_UUID);
+    }
+}
@@ -0,0 +1,65 @@
+package com.ecore.roles.benchmark;
+
+import com.ecore.roles.RolesApplication;
+import com.ecore.roles.client.TeamsClient;
+import com.ecore.roles.client.UsersClient;
+import com.ecore.roles.client.model.Team;
+import com.ecore.roles.client.model.User;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.ResponseEntity;
+
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Starts the application for service benchmarks: no web server, a private in-memory H2 database and
+ * the Users and Teams clients replaced by mocks that answer for any id, so a run measures this
+ * service rather than the upstreams. Extra {@code --name=value} arguments take precedence over
+ * application.yml.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {}
+
+    static ConfigurableApplicationContext start(String database, String... args) {
+        return new SpringApplicationBuilder(RolesApplication.class, MockClients.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:" + database,
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=500",
+                        "spring.jpa.properties.hibernate.order_inserts=true",
+                        "clients.teams-directory.enabled=false",
+                        "clients.warmup.enabled=false",
+                        "logging.level.root=warn")
+                .run(args);
+    }
+
+    @TestConfiguration
+    static class MockClients {
+
+        @Bean
+        @Primary
+        UsersClient benchmarkUsersClient() {
+            UsersClient usersClient = mock(UsersClient.class);
+            when(usersClient.getUser(any())).thenAnswer(invocation -> ResponseEntity.ok(
+                    User.builder().id(invocation.getArgument(0)).displayName("benchmark").build()));
+            return usersClient;
+        }
+
+        @Bean
+        @Primary
+        TeamsClient benchmarkTeamsClient() {
+            TeamsClient teamsClient = mock(TeamsClient.class);
+            when(teamsClient.getTeam(any())).thenAnswer(invocation -> ResponseEntity.ok(
+                    Team.builder().id(invocation.<UUID>getArgument(0)).name("benchmark").build()));
+            return teamsClient;
+        }
+    }
+}
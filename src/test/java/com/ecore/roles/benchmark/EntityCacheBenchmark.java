@@ -0,0 +1,91 @@
+package com.ecore.roles.benchmark;
+
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.Role;
+import com.ecore.roles.repository.MembershipRepository;
+import com.ecore.roles.repository.RoleRepository;
+import com.ecore.roles.service.MembershipsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.ecore.roles.utils.TestData.DEVELOPER_ROLE_UUID;
+
+/**
+ * Role and membership-by-role reads through the JPA repositories with the Hibernate second-level
+ * and query caches switched on and off, on the same embedded H2 data set.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class EntityCacheBenchmark {
+
+    @Param({"true", "false"})
+    public boolean cache;
+
+    @Param({"100"})
+    public int memberships;
+
+    private ConfigurableApplicationContext context;
+    private RoleRepository roleRepository;
+    private MembershipRepository membershipRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("entity-cache-benchmark",
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + cache,
+                "--spring.jpa.properties.hibernate.cache.use_query_cache=" + cache);
+        roleRepository = context.getBean(RoleRepository.class);
+        membershipRepository = context.getBean(MembershipRepository.class);
+
+        List<Membership> batch = new ArrayList<>();
+        for (int i = 0; i < memberships; i++) {
+            batch.add(Membership.builder()
+                    .role(Role.builder().id(DEVELOPER_ROLE_UUID).build())
+                    .userId(UUID.randomUUID())
+                    .teamId(UUID.randomUUID())
+                    .build());
+        }
+        context.getBean(MembershipsService.class).assignRolesToMemberships(batch);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Role> roleById() {
+        return roleRepository.findById(DEVELOPER_ROLE_UUID);
+    }
+
+    @Benchmark
+    public Optional<Role> roleByName() {
+        return roleRepository.findByName("Developer");
+    }
+
+    @Benchmark
+    public List<Membership> membershipsByRole() {
+        return membershipRepository.findByRoleId(DEVELOPER_ROLE_UUID);
+    }
+}
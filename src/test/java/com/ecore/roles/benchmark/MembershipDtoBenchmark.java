@@ -0,0 +1,78 @@
+package com.ecore.roles.benchmark;
+
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.Role;
+import com.ecore.roles.web.dto.MembershipDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.ecore.roles.utils.TestData.DEVELOPER_ROLE_UUID;
+
+/**
+ * Mapping between {@link Membership} and {@link MembershipDto}, and JSON serialization of DTO lists
+ * with the same Jackson defaults the web layer uses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class MembershipDtoBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private List<Membership> memberships;
+    private List<MembershipDto> dtos;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        memberships = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            memberships.add(Membership.builder()
+                    .id(new UUID(1, i))
+                    .role(Role.builder().id(DEVELOPER_ROLE_UUID).build())
+                    .userId(new UUID(2, i))
+                    .teamId(new UUID(3, i))
+                    .build());
+        }
+        dtos = fromModel();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public List<MembershipDto> fromModel() {
+        return memberships.stream().map(MembershipDto::fromModel).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Membership> toModel() {
+        return dtos.stream().map(MembershipDto::toModel).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+}
@@ -0,0 +1,191 @@
+package com.ecore.roles.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the original membership table layout (V1 only: binary(255) ids, unique key led by
+ * role_id) with the layout produced by all current migrations, on a file-backed H2 database.
+ * <p>
+ * The on-disk size of the table and its indexes is printed once per trial. The default size keeps a
+ * run short; the 10M figure is reproduced with {@code -Dbenchmark.args="-p memberships=10000000"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MembershipLayoutBenchmark {
+
+    private static final String[] ROLE_IDS = {
+            "1b3c333b-36e7-4b64-aa15-c22ed5908ce4",
+            "25bbb7d2-26f3-11ec-9621-0242ac130002",
+            "37969e22-26f3-11ec-9621-0242ac130002"};
+    private static final int SAMPLES = 1024;
+    private static final int INSERT_BATCH = 10_000;
+
+    @Param({"legacy", "current"})
+    public String layout;
+
+    @Param({"100000"})
+    public int memberships;
+
+    private Path directory;
+    private Connection connection;
+    private PreparedStatement byUserAndTeam;
+    private PreparedStatement byRole;
+    private byte[][] sampleUserIds;
+    private byte[][] sampleTeamIds;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("membership-layout");
+        connection = DriverManager.getConnection("jdbc:h2:" + directory.resolve("roles"), "sa", "");
+        migrate();
+        populate();
+        reportDiskSpace();
+
+        byUserAndTeam = connection.prepareStatement(
+                "select id, role_id, user_id, team_id from membership where user_id = ? and team_id = ?");
+        byRole = connection.prepareStatement(
+                "select id, role_id, user_id, team_id from membership where role_id = ? order by id limit 100");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        connection.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public UUID findByUserIdAndTeamId() throws SQLException {
+        int sample = cursor++ & (SAMPLES - 1);
+        byUserAndTeam.setBytes(1, sampleUserIds[sample]);
+        byUserAndTeam.setBytes(2, sampleTeamIds[sample]);
+        try (ResultSet resultSet = byUserAndTeam.executeQuery()) {
+            return resultSet.next() ? UUID.fromString(resultSet.getString(1)) : null;
+        }
+    }
+
+    @Benchmark
+    public int findByRoleIdFirstPage() throws SQLException {
+        byRole.setString(1, ROLE_IDS[cursor++ % ROLE_IDS.length]);
+        int rows = 0;
+        try (ResultSet resultSet = byRole.executeQuery()) {
+            while (resultSet.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private void migrate() throws Exception {
+        Resource[] migrations = new PathMatchingResourcePatternResolver()
+                .getResources("classpath:db/migration/V*__*.sql");
+        Arrays.sort(migrations, Comparator.comparingInt(MembershipLayoutBenchmark::version));
+        for (Resource migration : migrations) {
+            if ("legacy".equals(layout) && version(migration) > 1) {
+                break;
+            }
+            String script = new String(migration.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            try (Statement statement = connection.createStatement()) {
+                for (String sql : script.split(";")) {
+                    if (!sql.isBlank()) {
+                        statement.execute(sql);
+                    }
+                }
+            }
+        }
+    }
+
+    private void populate() throws SQLException {
+        Random random = new Random(42);
+        sampleUserIds = new byte[SAMPLES][];
+        sampleTeamIds = new byte[SAMPLES][];
+        int sampleEvery = Math.max(1, memberships / SAMPLES);
+
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into membership(id, role_id, user_id, team_id) values (?, ?, ?, ?)")) {
+            for (int i = 0; i < memberships; i++) {
+                byte[] userId = bytes(new UUID(random.nextLong(), random.nextLong()));
+                byte[] teamId = bytes(new UUID(random.nextLong(), random.nextLong()));
+                insert.setString(1, new UUID(random.nextLong(), random.nextLong()).toString());
+                insert.setString(2, ROLE_IDS[i % ROLE_IDS.length]);
+                insert.setBytes(3, userId);
+                insert.setBytes(4, teamId);
+                insert.addBatch();
+                if (i % sampleEvery == 0 && i / sampleEvery < SAMPLES) {
+                    sampleUserIds[i / sampleEvery] = userId;
+                    sampleTeamIds[i / sampleEvery] = teamId;
+                }
+                if ((i + 1) % INSERT_BATCH == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        connection.setAutoCommit(true);
+        for (int i = 0; i < SAMPLES; i++) {
+            if (sampleUserIds[i] == null) {
+                sampleUserIds[i] = sampleUserIds[i % Math.min(memberships, SAMPLES)];
+                sampleTeamIds[i] = sampleTeamIds[i % Math.min(memberships, SAMPLES)];
+            }
+        }
+    }
+
+    private void reportDiskSpace() throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("call disk_space_used('MEMBERSHIP')")) {
+            resultSet.next();
+            System.out.printf("%n%s layout, %d memberships: %,d bytes for the table and its indexes%n",
+                    layout, memberships, resultSet.getLong(1));
+        }
+    }
+
+    private static int version(Resource migration) {
+        String name = migration.getFilename();
+        return Integer.parseInt(name.substring(1, name.indexOf("__")));
+    }
+
+    private static byte[] bytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,103 @@
+package com.ecore.roles.benchmark;
+
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.Role;
+import com.ecore.roles.repository.MembershipRepository;
+import com.ecore.roles.service.MembershipsService;
+import com.ecore.roles.service.index.MembershipIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.ecore.roles.utils.TestData.DEVELOPER_ROLE_UUID;
+
+/**
+ * Answers "which role does user U have in team T" through the in-memory {@link MembershipIndex} and
+ * through the JPA repository, on the same embedded H2 data set.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MembershipLookupBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    @Param({"100000"})
+    public int memberships;
+
+    private ConfigurableApplicationContext context;
+    private MembershipIndex membershipIndex;
+    private MembershipRepository membershipRepository;
+    private UUID[] userIds;
+    private UUID[] teamIds;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("lookup-benchmark");
+        membershipIndex = context.getBean(MembershipIndex.class);
+        membershipRepository = context.getBean(MembershipRepository.class);
+
+        Random random = new Random(42);
+        userIds = new UUID[SAMPLES];
+        teamIds = new UUID[SAMPLES];
+        MembershipsService membershipsService = context.getBean(MembershipsService.class);
+        List<Membership> batch = new ArrayList<>();
+        for (int i = 0; i < memberships; i++) {
+            Membership membership = Membership.builder()
+                    .role(Role.builder().id(DEVELOPER_ROLE_UUID).build())
+                    .userId(new UUID(random.nextLong(), random.nextLong()))
+                    .teamId(new UUID(random.nextLong(), random.nextLong()))
+                    .build();
+            if (i < SAMPLES) {
+                userIds[i] = membership.getUserId();
+                teamIds[i] = membership.getTeamId();
+            }
+            batch.add(membership);
+            if (batch.size() == 5_000) {
+                membershipsService.assignRolesToMemberships(batch);
+                batch.clear();
+            }
+        }
+        membershipsService.assignRolesToMemberships(batch);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UUID index() {
+        int sample = cursor++ & (SAMPLES - 1);
+        return membershipIndex.getRoleId(userIds[sample], teamIds[sample]);
+    }
+
+    @Benchmark
+    public UUID jpa() {
+        int sample = cursor++ & (SAMPLES - 1);
+        return membershipRepository.findByUserIdAndTeamId(userIds[sample], teamIds[sample])
+                .map(membership -> membership.getRole().getId())
+                .orElse(null);
+    }
+}
@@ -0,0 +1,92 @@
+package com.ecore.roles.benchmark;
+
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.Role;
+import com.ecore.roles.service.MembershipsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.ecore.roles.utils.TestData.DEVELOPER_ROLE_UUID;
+
+/**
+ * Memberships of one user and of one team, a page at a time, as the membership table grows. Both
+ * lookups walk the (user_id, id) and (team_id, id) indexes, so their latency should stay flat
+ * across {@code memberships}.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class MembershipReverseIndexBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final UUID USER_ID = new UUID(1, 0);
+    private static final UUID TEAM_ID = new UUID(2, 0);
+
+    @Param({"10000", "100000", "1000000"})
+    public int memberships;
+
+    private ConfigurableApplicationContext context;
+    private MembershipsService membershipsService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("reverse-index-benchmark");
+        membershipsService = context.getBean(MembershipsService.class);
+
+        Random random = new Random(42);
+        List<Membership> batch = new ArrayList<>();
+        for (int i = 0; i < memberships; i++) {
+            // The first rows give the sampled user and team exactly PAGE_SIZE memberships each.
+            UUID userId = i < PAGE_SIZE ? USER_ID : new UUID(random.nextLong(), random.nextLong());
+            UUID teamId = i >= PAGE_SIZE && i < 2 * PAGE_SIZE
+                    ? TEAM_ID
+                    : new UUID(random.nextLong(), random.nextLong());
+            batch.add(Membership.builder()
+                    .role(Role.builder().id(DEVELOPER_ROLE_UUID).build())
+                    .userId(userId)
+                    .teamId(teamId)
+                    .build());
+            if (batch.size() == 5_000) {
+                membershipsService.assignRolesToMemberships(batch);
+                batch.clear();
+            }
+        }
+        membershipsService.assignRolesToMemberships(batch);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Membership> byUser() {
+        return membershipsService.getMembershipsByUser(USER_ID, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Membership> byTeam() {
+        return membershipsService.getMembershipsByTeam(TEAM_ID, null, PAGE_SIZE);
+    }
+}
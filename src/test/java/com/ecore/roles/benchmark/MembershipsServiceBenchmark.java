@@ -0,0 +1,116 @@
+package com.ecore.roles.benchmark;
+
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.Role;
+import com.ecore.roles.service.MembershipsService;
+import com.ecore.roles.service.RolesService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.ecore.roles.utils.TestData.DEVELOPER_ROLE_UUID;
+
+/**
+ * Membership writes and searches through {@link MembershipsService}, on embedded H2 with mocked
+ * upstream clients. Searches run against a dedicated role holding exactly {@code resultSize}
+ * memberships.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class MembershipsServiceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Application {
+
+        ConfigurableApplicationContext context;
+        MembershipsService membershipsService;
+        RolesService rolesService;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = BenchmarkApplication.start("memberships-benchmark");
+            membershipsService = context.getBean(MembershipsService.class);
+            rolesService = context.getBean(RolesService.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Assignments {
+
+        // Ids are derived from a counter rather than randomUUID() so every run inserts the same rows.
+        private final long seed = Thread.currentThread().getId();
+        private long sequence;
+
+        Membership next() {
+            return Membership.builder()
+                    .role(Role.builder().id(DEVELOPER_ROLE_UUID).build())
+                    .userId(new UUID(seed, sequence++))
+                    .teamId(new UUID(seed, sequence))
+                    .build();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Search {
+
+        @Param({"10", "100", "1000"})
+        public int resultSize;
+
+        UUID roleId;
+
+        @Setup(Level.Trial)
+        public void setUp(Application application) {
+            Role role = application.rolesService
+                    .CreateRole(Role.builder().name("Benchmark " + resultSize).build());
+            roleId = role.getId();
+            List<Membership> memberships = new ArrayList<>(resultSize);
+            for (int i = 0; i < resultSize; i++) {
+                memberships.add(Membership.builder()
+                        .role(role)
+                        .userId(new UUID(resultSize, i))
+                        .teamId(new UUID(-resultSize, i))
+                        .build());
+            }
+            application.membershipsService.assignRolesToMemberships(memberships);
+        }
+    }
+
+    @Benchmark
+    public Membership assignRoleToMembership(Application application, Assignments assignments) {
+        return application.membershipsService.assignRoleToMembership(assignments.next());
+    }
+
+    @Benchmark
+    public List<Membership> getMemberships(Application application, Search search) {
+        return application.membershipsService.getMemberships(search.roleId);
+    }
+
+    @Benchmark
+    public List<Membership> getMembershipsPage(Application application, Search search) {
+        return application.membershipsService.getMemberships(search.roleId, null, search.resultSize);
+    }
+}
@@ -0,0 +1,84 @@
+package com.ecore.roles.benchmark;
+
+import com.ecore.roles.exception.ResourceNotFoundException;
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.Role;
+import com.ecore.roles.service.MembershipsService;
+import com.ecore.roles.service.RolesService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.ecore.roles.utils.TestData.DEFAULT_MEMBERSHIP;
+import static com.ecore.roles.utils.TestData.DEVELOPER_ROLE_UUID;
+
+/**
+ * Role lookups through {@link RolesService}, on embedded H2 with mocked upstream clients: by id,
+ * the whole list, and by (user, team) both for an existing membership and for one that does not
+ * exist.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class RolesServiceBenchmark {
+
+    private static final UUID UNKNOWN_USER_ID = new UUID(0, 1);
+
+    private ConfigurableApplicationContext context;
+    private RolesService rolesService;
+    private Membership membership;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("roles-benchmark");
+        rolesService = context.getBean(RolesService.class);
+        membership = context.getBean(MembershipsService.class).assignRoleToMembership(DEFAULT_MEMBERSHIP());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Role getRoleById() {
+        return rolesService.GetRole(DEVELOPER_ROLE_UUID);
+    }
+
+    @Benchmark
+    public List<Role> getRoles() {
+        return rolesService.GetRoles();
+    }
+
+    @Benchmark
+    public Role getRoleByMembership() {
+        return rolesService.GetRole(membership.getUserId(), membership.getTeamId());
+    }
+
+    @Benchmark
+    public ResourceNotFoundException getRoleByMissingMembership() {
+        try {
+            rolesService.GetRole(UNKNOWN_USER_ID, membership.getTeamId());
+            throw new IllegalStateException("Expected the membership to be missing");
+        } catch (ResourceNotFoundException e) {
+            return e;
+        }
+    }
+}
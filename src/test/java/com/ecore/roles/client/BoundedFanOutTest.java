@@ -0,0 +1,74 @@
+package com.ecore.roles.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BoundedFanOutTest {
+
+    @Test
+    void shouldKeepAtMostParallelismCallsInFlight() {
+        List<CompletableFuture<Integer>> pending = new ArrayList<>();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        List<Integer> keys = IntStream.range(0, 10).boxed().collect(Collectors.toList());
+
+        Map<Integer, CompletableFuture<Integer>> results = BoundedFanOut.fetchAll(keys, key -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            CompletableFuture<Integer> call = new CompletableFuture<>();
+            pending.add(call);
+            return call.whenComplete((value, error) -> inFlight.decrementAndGet());
+        }, 3);
+
+        for (int i = 0; i < keys.size(); i++) {
+            assertThat(pending).hasSize(Math.min(i + 3, keys.size()));
+            pending.get(i).complete(i * 10);
+        }
+        assertThat(maxInFlight.get()).isEqualTo(3);
+        assertThat(results.keySet()).containsExactlyElementsOf(keys);
+        assertThat(results.get(7).join()).isEqualTo(70);
+    }
+
+    @Test
+    void shouldCallEachDistinctKeyOnceAndNotSpendSlotsOnCompletedCalls() {
+        AtomicInteger calls = new AtomicInteger();
+
+        Map<String, CompletableFuture<String>> results = BoundedFanOut.fetchAll(
+                List.of("a", "b", "a", "c", "b"),
+                key -> {
+                    calls.incrementAndGet();
+                    return CompletableFuture.completedFuture(key.toUpperCase());
+                }, 1);
+
+        assertThat(calls.get()).isEqualTo(3);
+        assertThat(results.get("c").join()).isEqualTo("C");
+    }
+
+    @Test
+    void shouldReportFailuresPerKeyAndTimeOutWhatIsStillPending() {
+        Map<Integer, CompletableFuture<Integer>> results = BoundedFanOut.fetchAll(List.of(1, 2, 3), key -> {
+            if (key == 1) {
+                throw new IllegalStateException("boom");
+            }
+            return key == 2 ? CompletableFuture.completedFuture(2) : new CompletableFuture<>();
+        }, 2, Duration.ofMillis(50));
+
+        CompletionException failed = assertThrows(CompletionException.class, () -> results.get(1).join());
+        assertThat(failed).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(results.get(2).join()).isEqualTo(2);
+        CompletionException timedOut = assertThrows(CompletionException.class, () -> results.get(3).join());
+        assertThat(timedOut).hasCauseInstanceOf(TimeoutException.class);
+    }
+}
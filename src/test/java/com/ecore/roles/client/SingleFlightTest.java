@@ -0,0 +1,143 @@
+package com.ecore.roles.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.ecore.roles.utils.TestData.UUID_1;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 16;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<Object, String> singleFlight =
+            new SingleFlight<>(meterRegistry, "teams", "getTeam");
+
+    @Test
+    void shouldShareOneUpstreamCallBetweenConcurrentCallers() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> singleFlight.execute(UUID_1, () -> {
+                    upstreamCalls.incrementAndGet();
+                    await(release);
+                    return "team";
+                })));
+            }
+            while (coalesced() < CALLERS - 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("team");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+        assertThat(coalesced()).isEqualTo(CALLERS - 1);
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    @Test
+    void shouldShareOneAsyncUpstreamCallBetweenConcurrentCallers() {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        AtomicInteger upstreamCalls = new AtomicInteger();
+
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(singleFlight.executeAsync(UUID_1, () -> {
+                upstreamCalls.incrementAndGet();
+                return upstream;
+            }));
+        }
+        upstream.complete("team");
+
+        results.forEach(result -> assertThat(result.join()).isEqualTo("team"));
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+        assertThat(coalesced()).isEqualTo(CALLERS - 1);
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    @Test
+    void shouldNotKeepFailedCallsInFlight() {
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute(UUID_1, () -> {
+            throw new IllegalStateException("upstream down");
+        }));
+
+        assertThat(singleFlight.execute(UUID_1, () -> "team")).isEqualTo("team");
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    @Test
+    void shouldReleaseCoalescedCallersWhenTheCallThrowsAnError() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> singleFlight.execute(UUID_1, () -> {
+                    await(release);
+                    throw new LinkageError("upstream client broken");
+                })));
+            }
+            while (coalesced() < CALLERS - 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                ExecutionException failure =
+                        assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertThat(failure).hasCauseInstanceOf(LinkageError.class);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(singleFlight.inFlight()).isZero();
+        assertThat(singleFlight.execute(UUID_1, () -> "team")).isEqualTo("team");
+    }
+
+    @Test
+    void shouldFailTheAsyncCallWhenStartingItThrowsAnError() {
+        CompletableFuture<String> result = singleFlight.executeAsync(UUID_1, () -> {
+            throw new LinkageError("upstream client broken");
+        });
+
+        assertThat(result).isCompletedExceptionally();
+        assertThat(singleFlight.inFlight()).isZero();
+        assertThat(singleFlight.executeAsync(UUID_1, () -> CompletableFuture.completedFuture("team")).join())
+                .isEqualTo("team");
+    }
+
+    private double coalesced() {
+        return meterRegistry.get("upstream.calls.coalesced").counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.ecore.roles.client;
+
+import com.ecore.roles.exception.UpstreamUnavailableException;
+import com.ecore.roles.utils.RestAssuredHelper;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.ecore.roles.utils.RestAssuredHelper.getRole;
+import static com.ecore.roles.utils.RestAssuredHelper.refreshTeamDirectory;
+import static io.restassured.RestAssured.when;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Runs the clients against a local stub that answers every request after {@link #DELAY_MILLIS}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class UpstreamIsolationTest {
+
+    private static final long DELAY_MILLIS = 500;
+    private static final AtomicInteger STUB_HITS = new AtomicInteger();
+    private static HttpServer stub;
+
+    private final UsersClient usersClient;
+    private final TeamsClient teamsClient;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    public UpstreamIsolationTest(
+            UsersClient usersClient,
+            TeamsClient teamsClient,
+            CircuitBreakerRegistry circuitBreakerRegistry) {
+        this.usersClient = usersClient;
+        this.teamsClient = teamsClient;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+    }
+
+    @DynamicPropertySource
+    static void upstreams(DynamicPropertyRegistry registry) throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stub.setExecutor(Executors.newCachedThreadPool());
+        stub.createContext("/", exchange -> {
+            STUB_HITS.incrementAndGet();
+            String path = exchange.getRequestURI().getPath();
+            byte[] body = json(path.substring(path.lastIndexOf('/') + 1));
+            try {
+                Thread.sleep(DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream response = exchange.getResponseBody()) {
+                response.write(body);
+            }
+        });
+        stub.start();
+
+        String host = "http://localhost:" + stub.getAddress().getPort();
+        registry.add("clients.users-api-host", () -> host + "/users");
+        registry.add("clients.teams-api-host", () -> host + "/teams");
+        registry.add("clients.users-resilience.max-concurrent-calls", () -> 2);
+        registry.add("clients.teams-resilience.slow-call-duration-threshold", () -> "200ms");
+        registry.add("clients.teams-resilience.slow-call-rate-threshold", () -> 100);
+        registry.add("clients.teams-resilience.sliding-window-size", () -> 2);
+        registry.add("clients.teams-resilience.minimum-number-of-calls", () -> 2);
+        registry.add("clients.teams-resilience.wait-duration-in-open-state", () -> "1m");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop(0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        RestAssuredHelper.setUp(port);
+        circuitBreakerRegistry.getAllCircuitBreakers().forEach(CircuitBreaker::reset);
+    }
+
+    @Test
+    void shouldRejectCallsBeyondTheBulkheadWithoutWaitingForTheUpstream() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> calls = new ArrayList<>();
+        try {
+            for (int i = 0; i < 4; i++) {
+                calls.add(callers.submit(() -> {
+                    start.await();
+                    long started = System.nanoTime();
+                    try {
+                        usersClient.getUser(UUID.randomUUID());
+                        return -1L;
+                    } catch (UpstreamUnavailableException e) {
+                        return (System.nanoTime() - started) / 1_000_000;
+                    }
+                }));
+            }
+            start.countDown();
+
+            List<Long> rejectedAfterMillis = new ArrayList<>();
+            for (Future<Long> call : calls) {
+                long millis = call.get();
+                if (millis >= 0) {
+                    rejectedAfterMillis.add(millis);
+                }
+            }
+            assertThat(rejectedAfterMillis).hasSize(2).allMatch(millis -> millis < DELAY_MILLIS);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldOpenCircuitOnSlowCallsAndFailFastWith503() {
+        teamsClient.getTeam(UUID.randomUUID());
+        teamsClient.getTeam(UUID.randomUUID());
+        assertThat(circuitBreakerRegistry.circuitBreaker("teams").getState())
+                .isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> teamsClient.getTeam(UUID.randomUUID()))
+                .isInstanceOf(UpstreamUnavailableException.class);
+
+        int hits = STUB_HITS.get();
+        refreshTeamDirectory()
+                .validate(503, "teams service is unavailable");
+        getRole(UUID.randomUUID(), UUID.randomUUID())
+                .validate(404, "Membership not found");
+        assertThat(STUB_HITS.get()).isEqualTo(hits);
+
+        when()
+                .get("/actuator/health")
+                .then()
+                .statusCode(200)
+                .body("components.upstreams.status", equalTo("UP"))
+                .body("components.upstreams.details.teams.circuitBreaker", equalTo("OPEN"))
+                .body("components.upstreams.details.users.circuitBreaker", equalTo("CLOSED"));
+    }
+
+    private static byte[] json(String id) {
+        return String.format("{\"id\":\"%s\"}", id).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,64 @@
+package com.ecore.roles.client.cache;
+
+import com.ecore.roles.client.model.Team;
+import com.ecore.roles.client.model.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.ecore.roles.utils.TestData.GIANNI_USER;
+import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM;
+import static com.ecore.roles.utils.TestData.UUID_1;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CacheSnapshotFileTest {
+
+    private static final Instant SAVED_AT = Instant.parse("2022-04-01T10:15:30Z");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldRoundTripUsersAndTeams() throws IOException {
+        User sparseUser = User.builder().id(UUID_1).displayName("Zoë").build();
+        Team sparseTeam = Team.builder().id(UUID_1).teamMemberIds(List.of()).build();
+        CacheSnapshot snapshot = new CacheSnapshot(SAVED_AT,
+                List.of(GIANNI_USER(), sparseUser),
+                List.of(ORDINARY_CORAL_LYNX_TEAM(), sparseTeam));
+        Path path = directory.resolve("snapshots/cache.bin");
+
+        CacheSnapshotFile.write(path, snapshot);
+        CacheSnapshot restored = CacheSnapshotFile.read(path);
+
+        assertThat(restored.getSavedAt()).isEqualTo(SAVED_AT);
+        assertThat(restored.getUsers()).containsExactly(GIANNI_USER(), sparseUser);
+        assertThat(restored.getTeams()).containsExactly(ORDINARY_CORAL_LYNX_TEAM(), sparseTeam);
+        try (var files = Files.list(path.getParent())) {
+            assertThat(files).containsExactly(path);
+        }
+    }
+
+    @Test
+    void shouldRejectTruncatedSnapshots() throws IOException {
+        Path path = directory.resolve("cache.bin");
+        CacheSnapshotFile.write(path, new CacheSnapshot(SAVED_AT, List.of(GIANNI_USER()), List.of()));
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 10));
+
+        assertThrows(IOException.class, () -> CacheSnapshotFile.read(path));
+    }
+
+    @Test
+    void shouldRejectFilesThatAreNotSnapshots() throws IOException {
+        Path path = Files.writeString(directory.resolve("cache.bin"), "not a snapshot at all");
+
+        assertThrows(IOException.class, () -> CacheSnapshotFile.read(path));
+    }
+}
@@ -0,0 +1,104 @@
+package com.ecore.roles.client.cache;
+
+import com.ecore.roles.configuration.ClientsConfigurationProperties.CacheProperties;
+import com.ecore.roles.configuration.ClientsConfigurationProperties.EvictionPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UpstreamCacheFactoryTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final List<CompletableFuture<String>> reloads = new ArrayList<>();
+    private UpstreamCache<String, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = create(EvictionPolicy.EXPIRE_AFTER_WRITE);
+    }
+
+    @Test
+    void shouldServeStaleValueWhileRefreshingInTheBackground() {
+        cache.get("key", key -> "v1");
+        advance(Duration.ofSeconds(30));
+        assertThat(cache.get("key", key -> "unexpected")).isEqualTo("v1");
+        assertThat(reloads).isEmpty();
+
+        advance(Duration.ofSeconds(45));
+        assertThat(cache.get("key", key -> "unexpected")).isEqualTo("v1");
+        assertThat(cache.getIfPresent("key")).isEqualTo("v1");
+        assertThat(reloads).hasSize(1);
+
+        reloads.get(0).complete("v2");
+        assertThat(cache.getIfPresent("key")).isEqualTo("v2");
+    }
+
+    @Test
+    void shouldServeStaleValueWhileTheUpstreamIsDownUntilTheHardTtl() {
+        cache.get("key", key -> "v1");
+        advance(Duration.ofMinutes(2));
+        assertThat(cache.get("key", key -> "unexpected")).isEqualTo("v1");
+        reloads.get(0).completeExceptionally(new IllegalStateException("upstream down"));
+
+        advance(Duration.ofMinutes(2));
+        assertThat(cache.get("key", key -> "unexpected")).isEqualTo("v1");
+        reloads.get(1).completeExceptionally(new IllegalStateException("upstream down"));
+
+        advance(Duration.ofMinutes(2));
+        assertThat(cache.getIfPresent("key")).isNull();
+        assertThat(cache.get("key", key -> "v3")).isEqualTo("v3");
+    }
+
+    @Test
+    void shouldExpireAFrequentlyReadStaleValueAtTheHardTtlUnderExpireAfterAccess() {
+        cache = create(EvictionPolicy.EXPIRE_AFTER_ACCESS);
+        cache.get("key", key -> "v1");
+
+        // Read well within the idle timeout, each time past the soft ttl, so each read starts a reload.
+        for (int read = 0; read < 3; read++) {
+            advance(Duration.ofSeconds(90));
+            assertThat(cache.get("key", key -> "unexpected")).isEqualTo("v1");
+            reloads.get(read).completeExceptionally(new IllegalStateException("upstream down"));
+        }
+
+        advance(Duration.ofSeconds(90));
+        assertThat(cache.getIfPresent("key")).isNull();
+        assertThat(cache.get("key", key -> "v2")).isEqualTo("v2");
+    }
+
+    @Test
+    void shouldRejectSoftTtlThatIsNotShorterThanTtl() {
+        CacheProperties properties = new CacheProperties();
+        properties.setSoftTtl(properties.getTtl());
+
+        assertThatThrownBy(() -> new UpstreamCacheFactory(new SimpleMeterRegistry())
+                .create("test", properties, key -> CompletableFuture.completedFuture(key)))
+                        .isInstanceOf(IllegalStateException.class);
+    }
+
+    private UpstreamCache<String, String> create(EvictionPolicy evictionPolicy) {
+        CacheProperties properties = new CacheProperties();
+        properties.setTtl(Duration.ofMinutes(5));
+        properties.setSoftTtl(Duration.ofMinutes(1));
+        properties.setEvictionPolicy(evictionPolicy);
+        return new UpstreamCacheFactory(new SimpleMeterRegistry(), nanos::get, Runnable::run)
+                .create("test", properties, key -> {
+                    CompletableFuture<String> reload = new CompletableFuture<>();
+                    reloads.add(reload);
+                    return reload;
+                });
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecore.roles.configuration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reads the production {@code application.yml}, which the test resources shadow on the classpath for
+ * every other test.
+ */
+class ApplicationConfigurationTest {
+
+    private static final String MAIN_CONFIG = "src/main/resources/application.yml";
+
+    private Binder binder;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        List<PropertySource<?>> sources = new YamlPropertySourceLoader()
+                .load("application.yml", new FileSystemResource(MAIN_CONFIG));
+        assertThat(sources).isNotEmpty();
+        binder = new Binder(ConfigurationPropertySources.from(sources));
+    }
+
+    @Test
+    void shouldBindTheClientsSettings() {
+        ClientsConfigurationProperties clients =
+                binder.bind("clients", ClientsConfigurationProperties.class).get();
+
+        assertThat(clients.getUsersCache().getTtl()).isEqualTo(Duration.ofMinutes(5));
+        assertThat(clients.getUsersCache().getEvictionPolicy())
+                .isEqualTo(ClientsConfigurationProperties.EvictionPolicy.EXPIRE_AFTER_WRITE);
+        assertThat(clients.getTeamsCache().getSoftTtl()).isEqualTo(Duration.ofMinutes(1));
+    }
+
+    @Test
+    void shouldBindTheMembershipsSettings() {
+        assertThat(binder.bind("memberships", MembershipsConfigurationProperties.class).isBound()).isTrue();
+    }
+
+    @Test
+    void shouldBindTheIdempotencySettings() {
+        IdempotencyConfigurationProperties idempotency =
+                binder.bind("idempotency", IdempotencyConfigurationProperties.class).get();
+
+        assertThat(idempotency.getTtl()).isEqualTo(Duration.ofHours(24));
+        assertThat(idempotency.getMaxEntries()).isEqualTo(10_000);
+        assertThat(idempotency.getReplayTimeout()).isEqualTo(Duration.ofSeconds(30));
+    }
+}
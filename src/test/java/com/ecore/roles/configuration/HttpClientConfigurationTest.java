@@ -0,0 +1,179 @@
+package com.ecore.roles.configuration;
+
+import com.ecore.roles.configuration.ClientsConfigurationProperties.ConnectionProperties;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.HttpHost;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.ecore.roles.configuration.HttpClientConfiguration.route;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+class HttpClientConfigurationTest {
+
+    private final HttpClientConfiguration httpClientConfiguration = new HttpClientConfiguration();
+    private final ClientsConfigurationProperties properties = new ClientsConfigurationProperties();
+    // Client port of each request the server saw; a new port means a new connection.
+    private final List<Integer> connections = new CopyOnWriteArrayList<>();
+
+    private HttpServer server;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            connections.add(exchange.getRemoteAddress().getPort());
+            exchange.sendResponseHeaders(200, 2);
+            exchange.getResponseBody().write("[]".getBytes());
+            exchange.close();
+        });
+        server.start();
+        String host = "http://localhost:" + server.getAddress().getPort();
+        properties.setUsersApiHost(host + "/users");
+        properties.setTeamsApiHost(host + "/teams");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    void shouldBackTheRestTemplateWithThePooledHttpClient() {
+        start();
+
+        RestTemplate restTemplate = new RestTemplateConfiguration()
+                .restTemplate(new RestTemplateBuilder(), httpClient, properties);
+
+        Object requestFactory = ReflectionTestUtils.getField(restTemplate, "requestFactory");
+        assertThat(requestFactory).isInstanceOf(HttpComponentsClientHttpRequestFactory.class);
+        assertThat(((HttpComponentsClientHttpRequestFactory) requestFactory).getHttpClient())
+                .isSameAs(httpClient);
+    }
+
+    @Test
+    void shouldApplyTheConfiguredConnectionLimits() {
+        properties.getPool().setMaxTotalConnections(64);
+        connection(properties.getUsersConnection(), 12, 4);
+        connection(properties.getTeamsConnection(), 7, 2);
+        properties.setTeamsApiHost("https://teams.example.com/teams");
+
+        start();
+
+        assertThat(connectionManager.getMaxTotal()).isEqualTo(64);
+        assertThat(connectionManager.getMaxPerRoute(route(properties.getUsersApiHost()))).isEqualTo(8);
+        assertThat(connectionManager.getMaxPerRoute(route(properties.getTeamsApiHost()))).isEqualTo(5);
+    }
+
+    @Test
+    void shouldShareTheRouteBudgetWhenBothUpstreamsLiveOnOneHost() {
+        connection(properties.getUsersConnection(), 12, 4);
+        connection(properties.getTeamsConnection(), 7, 2);
+
+        start();
+
+        assertThat(connectionManager.getMaxPerRoute(route(properties.getUsersApiHost()))).isEqualTo(13);
+    }
+
+    @Test
+    void shouldLeaveTheAsyncShareOfEachUpstreamToTheNonBlockingClient() {
+        connection(properties.getUsersConnection(), 12, 4);
+        connection(properties.getTeamsConnection(), 7, 2);
+        properties.setTeamsApiHost("https://teams.example.com/teams");
+
+        Map<HttpHost, Integer> async = UpstreamHosts.maxConnections(properties,
+                ConnectionProperties::getMaxAsyncConnections);
+
+        assertThat(async).containsOnly(
+                entry(UpstreamHosts.host(properties.getUsersApiHost()), 4),
+                entry(UpstreamHosts.host(properties.getTeamsApiHost()), 2));
+    }
+
+    @Test
+    void shouldRejectAnAsyncShareThatLeavesNothingToTheBlockingClient() {
+        connection(properties.getUsersConnection(), 5, 5);
+
+        assertThatThrownBy(this::start)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("clients.users-connection.max-async-connections");
+    }
+
+    @Test
+    void shouldReuseKeptAliveConnections() throws IOException {
+        start();
+
+        get();
+        get();
+        get();
+
+        assertThat(connections).hasSize(3).containsOnly(connections.get(0));
+    }
+
+    @Test
+    void shouldReplaceConnectionsOlderThanTheTimeToLive() throws Exception {
+        properties.getPool().setTimeToLive(Duration.ofMillis(200));
+        start();
+
+        get();
+        Thread.sleep(400);
+        get();
+
+        assertThat(connections).hasSize(2).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void shouldEvictIdleConnectionsInTheBackground() throws Exception {
+        properties.getPool().setIdleTimeout(Duration.ofMillis(200));
+        start();
+
+        get();
+        assertThat(connectionManager.getTotalStats().getAvailable()).isEqualTo(1);
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (connectionManager.getTotalStats().getAvailable() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(connectionManager.getTotalStats().getAvailable()).isZero();
+    }
+
+    private void start() {
+        connectionManager = httpClientConfiguration.upstreamConnectionManager(properties);
+        httpClient = httpClientConfiguration.upstreamHttpClient(connectionManager, properties);
+    }
+
+    private static void connection(
+            ConnectionProperties connection,
+            int maxConnections,
+            int maxAsyncConnections) {
+        connection.setMaxConnections(maxConnections);
+        connection.setMaxAsyncConnections(maxAsyncConnections);
+    }
+
+    private void get() throws IOException {
+        httpClient.execute(new HttpGet(properties.getUsersApiHost()),
+                response -> null);
+    }
+}
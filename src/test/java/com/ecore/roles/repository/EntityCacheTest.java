@@ -0,0 +1,68 @@
+package com.ecore.roles.repository;
+
+import com.ecore.roles.model.Role;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.UUID;
+
+import static com.ecore.roles.utils.TestData.DEVELOPER_ROLE_UUID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class EntityCacheTest {
+
+    private final RoleRepository roleRepository;
+    private final Statistics statistics;
+
+    @Autowired
+    public EntityCacheTest(RoleRepository roleRepository, EntityManagerFactory entityManagerFactory) {
+        this.roleRepository = roleRepository;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeEach
+    void setUp() {
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void shouldServeRepeatedRoleLoadsFromTheSecondLevelCache() {
+        roleRepository.findById(DEVELOPER_ROLE_UUID).orElseThrow();
+        roleRepository.findById(DEVELOPER_ROLE_UUID).orElseThrow();
+
+        assertThat(statistics.getDomainDataRegionStatistics("role").getHitCount())
+                .isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void shouldServeRepeatedRoleByNameQueriesFromTheQueryCache() {
+        roleRepository.findByName("Developer").orElseThrow();
+        roleRepository.findByName("Developer").orElseThrow();
+
+        assertThat(statistics.getQueryCacheHitCount()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void shouldInvalidateCachedQueryResultsWhenTheTableIsWritten() {
+        String name = "Cached " + UUID.randomUUID();
+        assertThat(roleRepository.findByName(name)).isEmpty();
+
+        Role role = roleRepository.save(Role.builder().name(name).build());
+
+        assertThat(roleRepository.findByName(name)).map(Role::getId).contains(role.getId());
+        roleRepository.delete(role);
+    }
+}
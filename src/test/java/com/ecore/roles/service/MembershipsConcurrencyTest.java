@@ -0,0 +1,75 @@
+package com.ecore.roles.service;
+
+import com.ecore.roles.exception.ResourceExistsException;
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.repository.MembershipRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.ecore.roles.utils.TestData.DEFAULT_MEMBERSHIP;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class MembershipsConcurrencyTest {
+
+    private static final int CALLERS = 32;
+
+    @Autowired
+    private MembershipsService membershipsService;
+    @Autowired
+    private MembershipRepository membershipRepository;
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        membershipRepository.deleteAll();
+    }
+
+    @Test
+    void shouldAcceptExactlyOneOfManySimultaneousIdenticalAssignments() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<Membership>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    Membership membership = DEFAULT_MEMBERSHIP();
+                    membership.setId(null);
+                    return membershipsService.assignRoleToMembership(membership);
+                }));
+            }
+            start.countDown();
+
+            int created = 0;
+            int duplicates = 0;
+            for (Future<Membership> result : results) {
+                try {
+                    assertThat(result.get(30, TimeUnit.SECONDS).getId()).isNotNull();
+                    created++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(ResourceExistsException.class);
+                    duplicates++;
+                }
+            }
+
+            assertThat(created).isEqualTo(1);
+            assertThat(duplicates).isEqualTo(CALLERS - 1);
+            assertThat(membershipRepository.count()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -1,25 +1,57 @@
 package com.ecore.roles.service;
 
+import com.ecore.roles.client.model.Team;
+import com.ecore.roles.client.model.User;
+import com.ecore.roles.configuration.ClientsConfigurationProperties;
 import com.ecore.roles.exception.InvalidArgumentException;
 import com.ecore.roles.exception.ResourceExistsException;
+import com.ecore.roles.exception.ResourceNotFoundException;
 import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.MembershipAssignment;
+import com.ecore.roles.model.MembershipDetails;
+import com.ecore.roles.model.Role;
+import com.ecore.roles.repository.MembershipCursorRepository;
 import com.ecore.roles.repository.MembershipRepository;
-import com.ecore.roles.repository.RoleRepository;
+import com.ecore.roles.service.events.MembershipOutbox;
 import com.ecore.roles.service.impl.MembershipsServiceImpl;
+import com.ecore.roles.service.index.MembershipCounts;
+import com.ecore.roles.service.index.MembershipFilter;
+import com.ecore.roles.service.index.MembershipIndex;
+import com.ecore.roles.service.index.RoleCatalogue;
+import com.ecore.roles.service.metrics.DomainMetrics;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static com.ecore.roles.utils.TestData.DEFAULT_MEMBERSHIP;
 import static com.ecore.roles.utils.TestData.DEVELOPER_ROLE;
+import static com.ecore.roles.utils.TestData.GIANNI_USER;
+import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM;
+import static com.ecore.roles.utils.TestData.UUID_1;
+import static com.ecore.roles.utils.TestData.UUID_2;
+import static com.ecore.roles.utils.TestData.UUID_3;
+import static com.ecore.roles.utils.TestData.UUID_4;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
@@ -32,29 +64,48 @@ class MembershipsServiceTest {
     @Mock
     private MembershipRepository membershipRepository;
     @Mock
-    private RoleRepository roleRepository;
+    private RoleCatalogue roleCatalogue;
+    @Mock
+    private MembershipCursorRepository membershipCursorRepository;
+    @Mock
+    private MembershipIndex membershipIndex;
+    @Mock
+    private MembershipFilter membershipFilter;
+    @Mock
+    private MembershipCounts membershipCounts;
+    @Mock
+    private MembershipOutbox membershipOutbox;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private DomainMetrics domainMetrics;
     @Mock
     private UsersService usersService;
     @Mock
     private TeamsService teamsService;
+    @Mock
+    private ClientsConfigurationProperties clientsConfigurationProperties;
 
     @Test
     public void shouldCreateMembership() {
         Membership expectedMembership = DEFAULT_MEMBERSHIP();
-        when(roleRepository.findById(expectedMembership.getRole().getId()))
+        runTransactionsInline();
+        when(roleCatalogue.findById(expectedMembership.getRole().getId()))
                 .thenReturn(Optional.ofNullable(DEVELOPER_ROLE()));
-        when(membershipRepository.findByUserIdAndTeamId(expectedMembership.getUserId(),
-                expectedMembership.getTeamId()))
-                        .thenReturn(Optional.empty());
         when(membershipRepository
-                .save(expectedMembership))
+                .saveAndFlush(expectedMembership))
                         .thenReturn(expectedMembership);
 
         Membership actualMembership = membershipsService.assignRoleToMembership(expectedMembership);
 
         assertNotNull(actualMembership);
         assertEquals(actualMembership, expectedMembership);
-        verify(roleRepository).findById(expectedMembership.getRole().getId());
+        verify(roleCatalogue).findById(expectedMembership.getRole().getId());
+        verify(membershipIndex).put(expectedMembership);
+        verify(membershipFilter).put(expectedMembership);
+        verify(membershipCounts).add(List.of(expectedMembership));
+        verify(membershipOutbox).membershipsCreated(List.of(expectedMembership));
+        verify(domainMetrics).membershipsCreated(1);
     }
 
     @Test
@@ -66,19 +117,60 @@ class MembershipsServiceTest {
     @Test
     public void shouldFailToCreateMembershipWhenItExists() {
         Membership expectedMembership = DEFAULT_MEMBERSHIP();
-        when(membershipRepository.findByUserIdAndTeamId(expectedMembership.getUserId(),
-                expectedMembership.getTeamId()))
-                        .thenReturn(Optional.of(expectedMembership));
+        runTransactionsInline();
+        when(roleCatalogue.findById(expectedMembership.getRole().getId()))
+                .thenReturn(Optional.ofNullable(DEVELOPER_ROLE()));
+        when(membershipRepository.saveAndFlush(expectedMembership))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new ConstraintViolationException("could not execute statement", null,
+                                "PUBLIC.UK_MEMBERSHIP_TEAM_USER_INDEX_8")));
 
         ResourceExistsException exception = assertThrows(ResourceExistsException.class,
                 () -> membershipsService.assignRoleToMembership(expectedMembership));
 
         assertEquals("Membership already exists", exception.getMessage());
-        verify(roleRepository, times(0)).getById(any());
+        verify(domainMetrics).membershipRejected(exception);
+        verify(membershipIndex, times(0)).put(any());
+        verify(membershipCounts, times(0)).add(any());
         verify(usersService, times(0)).getUser(any());
         verify(teamsService, times(0)).getTeam(any());
     }
 
+    @Test
+    public void shouldNotMistakeOtherIntegrityViolationsForDuplicates() {
+        Membership expectedMembership = DEFAULT_MEMBERSHIP();
+        runTransactionsInline();
+        when(roleCatalogue.findById(expectedMembership.getRole().getId()))
+                .thenReturn(Optional.ofNullable(DEVELOPER_ROLE()));
+        DataIntegrityViolationException violation =
+                new DataIntegrityViolationException("could not execute statement",
+                        new ConstraintViolationException("could not execute statement", null,
+                                "PUBLIC.FK53W0PJJPC5ME9HTLY7J74YM1S"));
+        when(membershipRepository.saveAndFlush(expectedMembership)).thenThrow(violation);
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> membershipsService.assignRoleToMembership(expectedMembership));
+    }
+
+    @Test
+    public void shouldNotMistakeIntegrityViolationsWithoutAConstraintNameForDuplicates() {
+        Membership expectedMembership = DEFAULT_MEMBERSHIP();
+        runTransactionsInline();
+        when(roleCatalogue.findById(expectedMembership.getRole().getId()))
+                .thenReturn(Optional.ofNullable(DEVELOPER_ROLE()));
+        DataIntegrityViolationException violation =
+                new DataIntegrityViolationException("could not execute statement",
+                        new ConstraintViolationException("NULL not allowed for column \"ROLE_ID\"", null,
+                                null));
+        when(membershipRepository.saveAndFlush(expectedMembership)).thenThrow(violation);
+
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class,
+                () -> membershipsService.assignRoleToMembership(expectedMembership));
+
+        assertThat(exception).isSameAs(violation);
+        verify(membershipIndex, times(0)).put(any());
+    }
+
     @Test
     public void shouldFailToCreateMembershipWhenItHasInvalidRole() {
         Membership expectedMembership = DEFAULT_MEMBERSHIP();
@@ -89,7 +181,7 @@ class MembershipsServiceTest {
 
         assertEquals("Invalid 'Role' object", exception.getMessage());
         verify(membershipRepository, times(0)).findByUserIdAndTeamId(any(), any());
-        verify(roleRepository, times(0)).getById(any());
+        verify(roleCatalogue, times(0)).findById(any());
         verify(usersService, times(0)).getUser(any());
         verify(teamsService, times(0)).getTeam(any());
     }
@@ -100,4 +192,96 @@ class MembershipsServiceTest {
                 () -> membershipsService.getMemberships(null));
     }
 
+    @Test
+    public void shouldAssignMembershipsInBulkAndReportEachItem() {
+        Membership existing = DEFAULT_MEMBERSHIP();
+        Membership created = DEFAULT_MEMBERSHIP();
+        created.setUserId(UUID_1);
+        Membership duplicateInRequest = DEFAULT_MEMBERSHIP();
+        duplicateInRequest.setUserId(UUID_1);
+        Membership unknownRole = DEFAULT_MEMBERSHIP();
+        unknownRole.setUserId(UUID_2);
+        unknownRole.setRole(Role.builder().id(UUID_3).build());
+        Membership missingTeam = DEFAULT_MEMBERSHIP();
+        missingTeam.setTeamId(null);
+
+        when(roleCatalogue.findAllById(anyCollection()))
+                .thenReturn(Map.of(DEVELOPER_ROLE().getId(), DEVELOPER_ROLE()));
+        runTransactionsInline();
+        when(membershipFilter.mightContain(any(), any())).thenReturn(true);
+        when(membershipRepository.findByUserIdInAndTeamIdIn(anyCollection(), anyCollection()))
+                .thenReturn(List.of(DEFAULT_MEMBERSHIP()));
+        when(membershipRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<MembershipAssignment> results = membershipsService.assignRolesToMemberships(
+                Arrays.asList(existing, created, duplicateInRequest, unknownRole, missingTeam));
+
+        assertThat(results).extracting(MembershipAssignment::isCreated)
+                .containsExactly(false, true, false, false, false);
+        assertThat(results.get(0).getError()).isInstanceOf(ResourceExistsException.class);
+        assertThat(results.get(1).getMembership().getRole().getName()).isEqualTo("Developer");
+        assertThat(results.get(2).getError()).isInstanceOf(ResourceExistsException.class);
+        assertThat(results.get(3).getError()).isInstanceOf(ResourceNotFoundException.class);
+        assertThat(results.get(4).getError()).isInstanceOf(InvalidArgumentException.class);
+        verify(membershipRepository, times(1)).saveAllAndFlush(List.of(created));
+        verify(membershipCounts).add(List.of(created));
+        verify(membershipOutbox).membershipsCreated(List.of(created));
+        verify(membershipFilter).falsePositives(2);
+        verify(domainMetrics).membershipsCreated(1);
+        verify(domainMetrics, times(4)).membershipRejected(any());
+        verify(domainMetrics).roleNotFound();
+    }
+
+    @Test
+    public void shouldSkipTheExistenceQueryForPairsTheFilterRulesOut() {
+        Membership membership = DEFAULT_MEMBERSHIP();
+        when(roleCatalogue.findAllById(anyCollection()))
+                .thenReturn(Map.of(DEVELOPER_ROLE().getId(), DEVELOPER_ROLE()));
+        runTransactionsInline();
+        when(membershipFilter.mightContain(membership.getUserId(), membership.getTeamId())).thenReturn(false);
+        when(membershipRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<MembershipAssignment> results = membershipsService.assignRolesToMemberships(List.of(membership));
+
+        assertThat(results).extracting(MembershipAssignment::isCreated).containsExactly(true);
+        verify(membershipRepository, times(0)).findByUserIdInAndTeamIdIn(any(), any());
+        verify(membershipFilter).put(membership);
+    }
+
+    @Test
+    public void shouldFetchEachUserAndTeamOnceForAPageOfMembershipDetails() {
+        User user = GIANNI_USER();
+        Team team = ORDINARY_CORAL_LYNX_TEAM();
+        Membership first = DEFAULT_MEMBERSHIP();
+        Membership second = DEFAULT_MEMBERSHIP();
+        second.setUserId(UUID_4);
+        UUID roleId = first.getRole().getId();
+        when(membershipRepository.findByRoleIdAndIdGreaterThanOrderByIdAsc(roleId, UUID_1,
+                PageRequest.ofSize(2))).thenReturn(List.of(first, second));
+        when(clientsConfigurationProperties.getMaxFanOut()).thenReturn(1);
+        when(usersService.getUserAsync(first.getUserId()))
+                .thenReturn(CompletableFuture.completedFuture(user));
+        when(usersService.getUserAsync(UUID_4))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("unavailable")));
+        when(teamsService.getTeamAsync(first.getTeamId()))
+                .thenReturn(CompletableFuture.completedFuture(team));
+
+        List<MembershipDetails> details = membershipsService.getMembershipDetails(roleId, UUID_1, 2).join();
+
+        assertThat(details).hasSize(2);
+        assertThat(details.get(0).getMembership()).isEqualTo(first);
+        assertThat(details.get(0).getUser()).isEqualTo(user);
+        assertThat(details.get(0).getTeam()).isEqualTo(team);
+        assertThat(details.get(1).getUser()).isNull();
+        assertThat(details.get(1).getTeam()).isEqualTo(team);
+        verify(usersService).getUserAsync(first.getUserId());
+        verify(usersService).getUserAsync(UUID_4);
+        verify(teamsService, times(1)).getTeamAsync(first.getTeamId());
+    }
+
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> invocation
+                .<TransactionCallback<?>>getArgument(0)
+                .doInTransaction(null));
+    }
 }
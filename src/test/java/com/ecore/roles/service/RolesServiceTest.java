@@ -1,24 +1,40 @@
 package com.ecore.roles.service;
 
 import com.ecore.roles.exception.ResourceNotFoundException;
+import com.ecore.roles.exception.UpstreamUnavailableException;
+import com.ecore.roles.model.Membership;
 import com.ecore.roles.model.Role;
 import com.ecore.roles.repository.MembershipRepository;
 import com.ecore.roles.repository.RoleRepository;
+import com.ecore.roles.service.events.MembershipOutbox;
 import com.ecore.roles.service.impl.RolesServiceImpl;
+import com.ecore.roles.service.index.MembershipIndex;
+import com.ecore.roles.service.index.RoleCatalogue;
+import com.ecore.roles.service.metrics.DomainMetrics;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
 
 import java.util.Optional;
 
+import static com.ecore.roles.utils.TestData.DEFAULT_MEMBERSHIP;
 import static com.ecore.roles.utils.TestData.DEVELOPER_ROLE;
+import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM;
 import static com.ecore.roles.utils.TestData.UUID_1;
 import static java.lang.String.format;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,15 +52,38 @@ class RolesServiceTest {
     @Mock
     private MembershipsService membershipsService;
 
+    @Mock
+    private MembershipIndex membershipIndex;
+
+    @Mock
+    private RoleCatalogue roleCatalogue;
+
+    @Mock
+    private TeamsService teamsService;
+
+    @Mock
+    private MembershipOutbox membershipOutbox;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private DomainMetrics domainMetrics;
+
     @Test
     public void shouldCreateRole() {
         Role developerRole = DEVELOPER_ROLE();
         when(roleRepository.save(developerRole)).thenReturn(developerRole);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> invocation
+                .<TransactionCallback<?>>getArgument(0)
+                .doInTransaction(null));
 
         Role role = rolesService.CreateRole(developerRole);
 
         assertNotNull(role);
         assertEquals(developerRole, role);
+        verify(roleCatalogue).put(developerRole);
+        verify(membershipOutbox).roleCreated(developerRole);
     }
 
     @Test
@@ -56,12 +95,13 @@ class RolesServiceTest {
     @Test
     public void shouldReturnRoleWhenRoleIdExists() {
         Role developerRole = DEVELOPER_ROLE();
-        when(roleRepository.findById(developerRole.getId())).thenReturn(Optional.of(developerRole));
+        when(roleCatalogue.findById(developerRole.getId())).thenReturn(Optional.of(developerRole));
 
         Role role = rolesService.GetRole(developerRole.getId());
 
         assertNotNull(role);
         assertEquals(developerRole, role);
+        verifyNoInteractions(roleRepository);
     }
 
     @Test
@@ -70,5 +110,65 @@ class RolesServiceTest {
                 () -> rolesService.GetRole(UUID_1));
 
         assertEquals(format("Role %s not found", UUID_1), exception.getMessage());
+        verify(domainMetrics).roleNotFound();
+    }
+
+    @Test
+    public void shouldReturnRoleFromMembershipIndex() {
+        Membership membership = DEFAULT_MEMBERSHIP();
+        Role developerRole = DEVELOPER_ROLE();
+        when(membershipIndex.getRoleId(membership.getUserId(), membership.getTeamId()))
+                .thenReturn(developerRole.getId());
+        when(roleCatalogue.findById(developerRole.getId())).thenReturn(Optional.of(developerRole));
+
+        Role role = rolesService.GetRole(membership.getUserId(), membership.getTeamId());
+
+        assertEquals(developerRole, role);
+        verifyNoInteractions(roleRepository, membershipRepository, teamsService);
+    }
+
+    @Test
+    public void shouldFailToGetRoleByUserIdAndTeamIdWhenTeamDoesNotExist() {
+        Membership membership = DEFAULT_MEMBERSHIP();
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> rolesService.GetRole(membership.getUserId(), membership.getTeamId()));
+
+        assertEquals(format("Team %s not found", membership.getTeamId()), exception.getMessage());
+    }
+
+    @Test
+    public void shouldFailToGetRoleByUserIdAndTeamIdWhenUserHasNoMembership() {
+        Membership membership = DEFAULT_MEMBERSHIP();
+        when(teamsService.getTeam(membership.getTeamId())).thenReturn(ORDINARY_CORAL_LYNX_TEAM());
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> rolesService.GetRole(membership.getUserId(), membership.getTeamId()));
+
+        assertEquals("Membership not found", exception.getMessage());
+    }
+
+    @Test
+    public void shouldFailToGetRoleByUserIdAndTeamIdWhenTeamsServiceDoesNotKnowTheTeam() {
+        Membership membership = DEFAULT_MEMBERSHIP();
+        when(teamsService.getTeam(membership.getTeamId())).thenThrow(HttpClientErrorException.create(
+                HttpStatus.NOT_FOUND, "Not Found", HttpHeaders.EMPTY, null, null));
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> rolesService.GetRole(membership.getUserId(), membership.getTeamId()));
+
+        assertEquals(format("Team %s not found", membership.getTeamId()), exception.getMessage());
+    }
+
+    @Test
+    public void shouldFailToGetRoleByUserIdAndTeamIdWithoutMembershipWhenTeamsServiceIsUnavailable() {
+        Membership membership = DEFAULT_MEMBERSHIP();
+        when(teamsService.getTeam(membership.getTeamId()))
+                .thenThrow(new UpstreamUnavailableException("Teams", new IllegalStateException("open")));
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> rolesService.GetRole(membership.getUserId(), membership.getTeamId()));
+
+        assertEquals("Membership not found", exception.getMessage());
     }
 }
@@ -1,28 +1,51 @@
 package com.ecore.roles.service;
 
 import com.ecore.roles.client.TeamsClient;
+import com.ecore.roles.client.cache.UpstreamCacheFactory;
 import com.ecore.roles.client.model.Team;
+import com.ecore.roles.configuration.ClientsConfigurationProperties;
 import com.ecore.roles.service.impl.TeamsServiceImpl;
+import com.ecore.roles.service.index.TeamDirectory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.util.List;
+
+import static com.ecore.roles.utils.TestData.GIANNI_USER_UUID;
 import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM;
 import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM_UUID;
+import static com.ecore.roles.utils.TestData.UUID_4;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class TeamsServiceTest {
 
-    @InjectMocks
     private TeamsServiceImpl TeamsService;
     @Mock
     private TeamsClient TeamsClient;
+    @Mock
+    private TeamDirectory teamDirectory;
+
+    @BeforeEach
+    void setUp() {
+        TeamsService = new TeamsServiceImpl(TeamsClient, teamDirectory,
+                new UpstreamCacheFactory(new SimpleMeterRegistry()),
+                new ClientsConfigurationProperties());
+    }
 
     @Test
     void shouldGetTeamWhenTeamIdExists() {
@@ -33,4 +56,37 @@ class TeamsServiceTest {
                         .body(ordinaryCoralLynxTeam));
         assertNotNull(TeamsService.getTeam(ORDINARY_CORAL_LYNX_TEAM_UUID));
     }
+
+    @Test
+    void shouldGetTeamAsyncFromCachedTeamsList() {
+        Team ordinaryCoralLynxTeam = ORDINARY_CORAL_LYNX_TEAM();
+        when(TeamsClient.getTeamsAsync())
+                .thenReturn(completedFuture(ResponseEntity
+                        .status(HttpStatus.OK)
+                        .body(List.of(ordinaryCoralLynxTeam))));
+
+        assertEquals(List.of(ordinaryCoralLynxTeam), TeamsService.getTeamsAsync().join());
+        assertEquals(ordinaryCoralLynxTeam, TeamsService.getTeamAsync(ORDINARY_CORAL_LYNX_TEAM_UUID).join());
+        verify(TeamsClient, times(1)).getTeamsAsync();
+    }
+
+    @Test
+    void shouldServeTeamFromDirectoryWithoutCallingTheClient() {
+        Team ordinaryCoralLynxTeam = ORDINARY_CORAL_LYNX_TEAM();
+        when(teamDirectory.getTeam(ORDINARY_CORAL_LYNX_TEAM_UUID)).thenReturn(ordinaryCoralLynxTeam);
+        when(teamDirectory.isMember(ORDINARY_CORAL_LYNX_TEAM_UUID, GIANNI_USER_UUID)).thenReturn(true);
+
+        assertEquals(ordinaryCoralLynxTeam, TeamsService.getTeam(ORDINARY_CORAL_LYNX_TEAM_UUID));
+        assertTrue(TeamsService.isTeamMember(ORDINARY_CORAL_LYNX_TEAM_UUID, GIANNI_USER_UUID));
+        verifyNoInteractions(TeamsClient);
+    }
+
+    @Test
+    void shouldCheckMembershipWithTheClientWhenTeamIsNotReplicatedYet() {
+        when(TeamsClient.getTeam(ORDINARY_CORAL_LYNX_TEAM_UUID))
+                .thenReturn(ResponseEntity.ok(ORDINARY_CORAL_LYNX_TEAM()));
+
+        assertTrue(TeamsService.isTeamMember(ORDINARY_CORAL_LYNX_TEAM_UUID, GIANNI_USER_UUID));
+        assertFalse(TeamsService.isTeamMember(ORDINARY_CORAL_LYNX_TEAM_UUID, UUID_4));
+    }
 }
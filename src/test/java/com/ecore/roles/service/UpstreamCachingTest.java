@@ -0,0 +1,95 @@
+package com.ecore.roles.service;
+
+import com.ecore.roles.client.model.Team;
+import com.ecore.roles.client.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.ecore.roles.utils.MockUtils.mockGetTeams;
+import static com.ecore.roles.utils.MockUtils.mockGetUserById;
+import static com.ecore.roles.utils.MockUtils.mockGetUsers;
+import static com.ecore.roles.utils.TestData.GIANNI_USER;
+import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class UpstreamCachingTest {
+
+    private final RestTemplate restTemplate;
+    private final UsersService usersService;
+    private final TeamsService teamsService;
+
+    private MockRestServiceServer mockServer;
+
+    @Autowired
+    public UpstreamCachingTest(
+            RestTemplate restTemplate,
+            UsersService usersService,
+            TeamsService teamsService) {
+        this.restTemplate = restTemplate;
+        this.usersService = usersService;
+        this.teamsService = teamsService;
+    }
+
+    @BeforeEach
+    void setUp() {
+        mockServer = MockRestServiceServer.createServer(restTemplate);
+    }
+
+    @Test
+    void shouldCallUsersApiOnceForRepeatedUserLookups() {
+        User user = GIANNI_USER();
+        user.setId(UUID.randomUUID());
+        mockGetUserById(mockServer, user.getId(), user);
+
+        User first = usersService.getUser(user.getId());
+        User second = usersService.getUser(user.getId());
+
+        mockServer.verify();
+        assertThat(first).isEqualTo(user);
+        assertThat(second).isEqualTo(user);
+    }
+
+    @Test
+    void shouldServeTeamLookupsFromTheCachedTeamsList() {
+        Team team = ORDINARY_CORAL_LYNX_TEAM();
+        team.setId(UUID.randomUUID());
+        mockGetTeams(mockServer, List.of(team));
+
+        assertThat(teamsService.getTeams()).containsExactly(team);
+        assertThat(teamsService.getTeams()).containsExactly(team);
+        assertThat(teamsService.getTeam(team.getId())).isEqualTo(team);
+
+        mockServer.verify();
+    }
+
+    @Test
+    void shouldNotCacheMissingUsers() {
+        UUID userId = UUID.randomUUID();
+        mockGetUserById(mockServer, userId, null);
+        mockGetUserById(mockServer, userId, null);
+
+        assertThat(usersService.getUser(userId)).isNull();
+        assertThat(usersService.getUser(userId)).isNull();
+
+        mockServer.verify();
+    }
+
+    @Test
+    void shouldCallUsersApiOnceForRepeatedUsersListLookups() {
+        mockGetUsers(mockServer, List.of(GIANNI_USER()));
+
+        assertThat(usersService.getUsers()).hasSize(1);
+        assertThat(usersService.getUsers()).hasSize(1);
+        assertThat(usersService.getUser(GIANNI_USER().getId())).isEqualTo(GIANNI_USER());
+
+        mockServer.verify();
+    }
+}
@@ -1,29 +1,57 @@
 package com.ecore.roles.service;
 
 import com.ecore.roles.client.UsersClient;
+import com.ecore.roles.client.cache.UpstreamCacheFactory;
 import com.ecore.roles.client.model.User;
+import com.ecore.roles.configuration.ClientsConfigurationProperties;
+import com.ecore.roles.exception.InvalidArgumentException;
+import com.ecore.roles.exception.ResourceNotFoundException;
+import com.ecore.roles.exception.UpstreamUnavailableException;
+import com.ecore.roles.model.Lookup;
 import com.ecore.roles.service.impl.UsersServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
 import static com.ecore.roles.utils.TestData.GIANNI_USER;
 import static com.ecore.roles.utils.TestData.UUID_1;
+import static com.ecore.roles.utils.TestData.UUID_2;
+import static com.ecore.roles.utils.TestData.UUID_3;
+import static org.assertj.core.api.Assertions.assertThat;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class UsersServiceTest {
 
-    @InjectMocks
     private UsersServiceImpl usersService;
+    private ClientsConfigurationProperties clientsConfigurationProperties;
     @Mock
     private UsersClient usersClient;
 
+    @BeforeEach
+    void setUp() {
+        clientsConfigurationProperties = new ClientsConfigurationProperties();
+        usersService = new UsersServiceImpl(usersClient,
+                new UpstreamCacheFactory(new SimpleMeterRegistry()),
+                clientsConfigurationProperties);
+    }
+
     @Test
     void shouldGetUserWhenUserIdExists() {
         User gianniUser = GIANNI_USER();
@@ -34,4 +62,50 @@ class UsersServiceTest {
 
         assertNotNull(usersService.getUser(UUID_1));
     }
+
+    @Test
+    void shouldGetUserAsyncFromCacheOnRepeatedLookups() {
+        User gianniUser = GIANNI_USER();
+        when(usersClient.getUserAsync(UUID_1))
+                .thenReturn(completedFuture(ResponseEntity
+                        .status(HttpStatus.OK)
+                        .body(gianniUser)));
+
+        assertEquals(gianniUser, usersService.getUserAsync(UUID_1).join());
+        assertEquals(gianniUser, usersService.getUserAsync(UUID_1).join());
+        verify(usersClient, times(1)).getUserAsync(UUID_1);
+    }
+
+    @Test
+    void shouldLookUpUsersInBulkAndReportEachIdSeparately() {
+        User gianniUser = GIANNI_USER();
+        when(usersClient.getUserAsync(UUID_1))
+                .thenReturn(completedFuture(ResponseEntity
+                        .status(HttpStatus.OK)
+                        .body(gianniUser)));
+        when(usersClient.getUserAsync(UUID_2))
+                .thenReturn(completedFuture(ResponseEntity
+                        .status(HttpStatus.OK)
+                        .build()));
+        when(usersClient.getUserAsync(UUID_3))
+                .thenReturn(CompletableFuture.failedFuture(new UpstreamUnavailableException("Users", null)));
+
+        List<Lookup<User>> lookups = usersService.lookupUsers(List.of(UUID_1, UUID_2, UUID_1, UUID_3)).join();
+
+        assertThat(lookups).extracting(Lookup::getId).containsExactly(UUID_1, UUID_2, UUID_3);
+        assertEquals(gianniUser, lookups.get(0).getValue());
+        assertThat(lookups.get(1).getError()).isInstanceOf(ResourceNotFoundException.class);
+        assertThat(lookups.get(2).getError()).isInstanceOf(UpstreamUnavailableException.class);
+        verify(usersClient, times(1)).getUserAsync(UUID_1);
+    }
+
+    @Test
+    void shouldRejectBulkLookupsAboveTheConfiguredLimit() {
+        clientsConfigurationProperties.setMaxLookupIds(1);
+
+        assertThrows(InvalidArgumentException.class,
+                () -> usersService.lookupUsers(List.of(UUID_1, UUID_2)));
+        assertThrows(InvalidArgumentException.class,
+                () -> usersService.lookupUsers(Collections.singletonList((UUID) null)));
+    }
 }
@@ -0,0 +1,227 @@
+package com.ecore.roles.service.events;
+
+import com.ecore.roles.configuration.MembershipsConfigurationProperties;
+import com.ecore.roles.model.MembershipEvent;
+import com.ecore.roles.repository.MembershipEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.ecore.roles.utils.TestData.DEVELOPER_ROLE_UUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class MembershipEventStreamTest {
+
+    @Mock
+    private MembershipEventRepository membershipEventRepository;
+
+    private final MembershipsConfigurationProperties properties = new MembershipsConfigurationProperties();
+    private final List<MembershipEvent> outbox = new CopyOnWriteArrayList<>();
+    private MembershipEventStream stream;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(membershipEventRepository.findMaxId()).thenAnswer(invocation -> (long) outbox.size());
+        lenient().when(membershipEventRepository.findAfter(anyLong(), anyInt())).thenAnswer(invocation ->
+                select(invocation.getArgument(0), Long.MAX_VALUE, invocation.getArgument(1)));
+        lenient().when(membershipEventRepository.findBetween(anyLong(), anyLong(), anyInt()))
+                .thenAnswer(invocation -> select(invocation.getArgument(0), invocation.getArgument(1),
+                        invocation.getArgument(2)));
+        lenient().when(membershipEventRepository.findMinId()).thenAnswer(invocation -> outbox.stream()
+                .map(MembershipEvent::getId)
+                .min(Long::compare)
+                .orElse(null));
+        properties.getEvents().setGapTimeout(Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stream.stop();
+    }
+
+    @Test
+    void shouldSendNewEventsInOrderToEverySubscriber() throws InterruptedException {
+        start();
+        RecordingListener first = new RecordingListener();
+        RecordingListener second = new RecordingListener();
+        stream.subscribe(null, first);
+        stream.subscribe(null, second);
+
+        store(1, 2, 3, 4, 5);
+        assertThat(stream.poll()).isEqualTo(5);
+
+        assertThat(first.take(5)).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(second.take(5)).containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    void shouldResumeFromAnOffsetBehindTheBufferThroughTheOutbox() throws InterruptedException {
+        properties.getEvents().setBufferSize(2);
+        start();
+        store(1, 2, 3, 4, 5);
+        stream.poll();
+
+        RecordingListener listener = new RecordingListener();
+        stream.subscribe(1L, listener);
+
+        assertThat(listener.take(4)).containsExactly(2L, 3L, 4L, 5L);
+        verify(membershipEventRepository, atLeastOnce()).findBetween(1L, 5L, 500);
+    }
+
+    @Test
+    void shouldResetASubscriberWhoseOffsetWasPurgedFromTheOutbox() throws InterruptedException {
+        properties.getEvents().setBufferSize(2);
+        start();
+        store(1, 2, 3, 4, 5);
+        stream.poll();
+        outbox.removeIf(event -> event.getId() <= 3);
+
+        RecordingListener listener = new RecordingListener();
+        stream.subscribe(1L, listener);
+
+        assertThat(listener.resets.poll(5, TimeUnit.SECONDS)).isEqualTo(5L);
+        store(6);
+        stream.poll();
+        assertThat(listener.take(1)).containsExactly(6L);
+    }
+
+    @Test
+    void shouldNotResetASubscriberWhenTheOutboxStillHoldsItsNextEvent() throws InterruptedException {
+        properties.getEvents().setBufferSize(2);
+        start();
+        store(1, 2, 3, 4, 5);
+        stream.poll();
+        outbox.removeIf(event -> event.getId() <= 2);
+
+        RecordingListener listener = new RecordingListener();
+        stream.subscribe(2L, listener);
+
+        assertThat(listener.take(3)).containsExactly(3L, 4L, 5L);
+        assertThat(listener.resets).isEmpty();
+    }
+
+    @Test
+    void shouldWaitAtAGapForTheMissingEventToCommit() throws InterruptedException {
+        start();
+        RecordingListener listener = new RecordingListener();
+        stream.subscribe(null, listener);
+
+        store(1, 3);
+        assertThat(stream.poll()).isEqualTo(1);
+        assertThat(stream.getHead()).isEqualTo(1);
+
+        store(2);
+        assertThat(stream.poll()).isEqualTo(2);
+
+        assertThat(listener.take(3)).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void shouldSkipAGapOnceItTimesOut() {
+        properties.getEvents().setGapTimeout(Duration.ZERO);
+        start();
+
+        store(1, 3);
+
+        assertThat(stream.poll()).isEqualTo(2);
+        assertThat(stream.getHead()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldDropSubscribersWhoseConnectionFails() throws InterruptedException {
+        start();
+        RecordingListener listener = new RecordingListener();
+        listener.failing = true;
+        MembershipEventStream.Subscription subscription = stream.subscribe(null, listener);
+
+        store(1);
+        stream.poll();
+
+        assertThat(listener.failures.poll(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(subscription.isOpen()).isFalse();
+    }
+
+    private void start() {
+        stream = new MembershipEventStream(membershipEventRepository, properties, new SimpleMeterRegistry());
+        stream.start();
+    }
+
+    private void store(long... ids) {
+        for (long id : ids) {
+            outbox.add(MembershipEvent.builder()
+                    .id(id)
+                    .type(MembershipEvent.Type.ROLE_CREATED)
+                    .roleId(DEVELOPER_ROLE_UUID)
+                    .createdAt(Instant.now())
+                    .build());
+        }
+        outbox.sort((a, b) -> Long.compare(a.getId(), b.getId()));
+    }
+
+    private List<MembershipEvent> select(long after, long upTo, int limit) {
+        return outbox.stream()
+                .filter(event -> event.getId() > after && event.getId() <= upTo)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private static class RecordingListener implements MembershipEventStream.Listener {
+
+        private final BlockingQueue<Long> ids = new LinkedBlockingQueue<>();
+        private final BlockingQueue<Long> resets = new LinkedBlockingQueue<>();
+        private final BlockingQueue<IOException> failures = new LinkedBlockingQueue<>();
+        private volatile boolean failing;
+
+        @Override
+        public void onEvent(MembershipEvent event) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            ids.add(event.getId());
+        }
+
+        @Override
+        public void onHeartbeat() {}
+
+        @Override
+        public void onReset(long cursor) {
+            resets.add(cursor);
+        }
+
+        @Override
+        public void onFailure(IOException error) {
+            failures.add(error);
+        }
+
+        List<Long> take(int count) throws InterruptedException {
+            List<Long> taken = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                Long id = ids.poll(5, TimeUnit.SECONDS);
+                assertThat(id).as("event %d of %d", i + 1, count).isNotNull();
+                taken.add(id);
+            }
+            return taken;
+        }
+    }
+}
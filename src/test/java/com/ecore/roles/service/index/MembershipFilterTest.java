@@ -0,0 +1,92 @@
+package com.ecore.roles.service.index;
+
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.repository.MembershipCursorRepository;
+import com.ecore.roles.repository.MembershipRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static com.ecore.roles.utils.TestData.DEFAULT_MEMBERSHIP;
+import static com.ecore.roles.utils.TestData.UUID_1;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MembershipFilterTest {
+
+    private static final int STORED = 10_000;
+
+    @Mock
+    private MembershipRepository membershipRepository;
+    @Mock
+    private MembershipCursorRepository membershipCursorRepository;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Membership> stored = new ArrayList<>();
+    private MembershipFilter membershipFilter;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < STORED; i++) {
+            stored.add(Membership.builder().userId(UUID.randomUUID()).teamId(UUID.randomUUID()).build());
+        }
+        when(membershipRepository.count()).thenAnswer(invocation -> (long) stored.size());
+        doAnswer(invocation -> {
+            Consumer<Membership> consumer = invocation.getArgument(0);
+            stored.forEach(consumer);
+            return null;
+        }).when(membershipCursorRepository).streamAll(any());
+        membershipFilter = new MembershipFilter(membershipRepository, membershipCursorRepository, meterRegistry);
+        membershipFilter.rebuild();
+    }
+
+    @Test
+    void shouldNeverRejectAStoredPair() {
+        for (Membership m : stored) {
+            assertThat(membershipFilter.mightContain(m.getUserId(), m.getTeamId())).isTrue();
+        }
+    }
+
+    @Test
+    void shouldRejectMostNewPairsWithinTheTargetRate() {
+        int falsePositives = 0;
+        for (int i = 0; i < STORED; i++) {
+            if (membershipFilter.mightContain(UUID.randomUUID(), UUID.randomUUID())) {
+                falsePositives++;
+            }
+        }
+
+        assertThat((double) falsePositives / STORED).isLessThan(MembershipFilter.FALSE_POSITIVE_RATE * 2);
+        assertThat(membershipFilter.expectedFalsePositiveRate())
+                .isLessThan(MembershipFilter.FALSE_POSITIVE_RATE);
+        assertThat(meterRegistry.get("memberships.filter.checks").tag("result", "absent").counter()
+                .count()).isEqualTo(STORED - falsePositives);
+        assertThat(meterRegistry.get("memberships.filter.memory").gauge().value())
+                .isEqualTo(membershipFilter.sizeInBytes());
+    }
+
+    @Test
+    void shouldAcceptInsertedPairsAndKeepThemAcrossRebuilds() {
+        Membership inserted = DEFAULT_MEMBERSHIP();
+        inserted.setUserId(UUID_1);
+
+        membershipFilter.put(inserted);
+        assertThat(membershipFilter.mightContain(UUID_1, inserted.getTeamId())).isTrue();
+
+        stored.add(inserted);
+        membershipFilter.rebuild();
+        assertThat(membershipFilter.mightContain(UUID_1, inserted.getTeamId())).isTrue();
+    }
+}
@@ -0,0 +1,76 @@
+package com.ecore.roles.service.index;
+
+import com.ecore.roles.model.Role;
+import com.ecore.roles.repository.RoleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.ecore.roles.utils.TestData.DEVELOPER_ROLE;
+import static com.ecore.roles.utils.TestData.DEVOPS_ROLE;
+import static com.ecore.roles.utils.TestData.PRODUCT_OWNER_ROLE;
+import static com.ecore.roles.utils.TestData.TESTER_ROLE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RoleCatalogueTest {
+
+    @InjectMocks
+    private RoleCatalogue roleCatalogue;
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @BeforeEach
+    void setUp() {
+        when(roleRepository.findAll())
+                .thenReturn(List.of(DEVELOPER_ROLE(), PRODUCT_OWNER_ROLE(), TESTER_ROLE()));
+        roleCatalogue.reload();
+    }
+
+    @Test
+    void shouldServeLookupsFromTheLoadedSnapshot() {
+        assertThat(roleCatalogue.findById(DEVELOPER_ROLE().getId())).get()
+                .extracting(Role::getName).isEqualTo(DEVELOPER_ROLE().getName());
+        assertThat(roleCatalogue.findByName(TESTER_ROLE().getName())).get()
+                .extracting(Role::getId).isEqualTo(TESTER_ROLE().getId());
+        assertThat(roleCatalogue.findByName(DEVOPS_ROLE().getName())).isEmpty();
+        assertThat(roleCatalogue.findAllById(List.of(DEVELOPER_ROLE().getId(), UUID.randomUUID())))
+                .containsOnlyKeys(DEVELOPER_ROLE().getId());
+
+        verify(roleRepository).findAll();
+        verifyNoMoreInteractions(roleRepository);
+    }
+
+    @Test
+    void shouldPageRolesInIdOrder() {
+        List<UUID> ids = roleCatalogue.findAll().stream().map(Role::getId).collect(Collectors.toList());
+        assertThat(ids).extracting(UUID::toString).isSorted();
+
+        assertThat(roleCatalogue.findAll(null, 2)).extracting(Role::getId).containsExactly(ids.get(0),
+                ids.get(1));
+        assertThat(roleCatalogue.findAll(ids.get(1), 2)).extracting(Role::getId).containsExactly(ids.get(2));
+    }
+
+    @Test
+    void shouldReplaceRoleWithTheSameNameWhenPut() {
+        Role recreated = DEVELOPER_ROLE();
+        recreated.setId(UUID.randomUUID());
+
+        roleCatalogue.put(recreated);
+
+        assertThat(roleCatalogue.findByName(recreated.getName())).containsSame(recreated);
+        assertThat(roleCatalogue.findById(DEVELOPER_ROLE().getId())).isEmpty();
+        assertThat(roleCatalogue.findAll()).hasSize(3);
+    }
+}
@@ -0,0 +1,117 @@
+package com.ecore.roles.service.index;
+
+import com.ecore.roles.client.TeamsClient;
+import com.ecore.roles.client.model.Team;
+import com.ecore.roles.configuration.ClientsConfigurationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.ecore.roles.utils.TestData.GIANNI_USER_UUID;
+import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM;
+import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM_UUID;
+import static com.ecore.roles.utils.TestData.UUID_1;
+import static com.ecore.roles.utils.TestData.UUID_4;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TeamDirectoryTest {
+
+    private static final Instant STARTED = Instant.parse("2022-01-01T00:00:00Z");
+
+    @Mock
+    private TeamsClient teamsClient;
+
+    private final ClientsConfigurationProperties clientsConfigurationProperties =
+            new ClientsConfigurationProperties();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock();
+    private TeamDirectory teamDirectory;
+
+    @BeforeEach
+    void setUp() {
+        teamDirectory = new TeamDirectory(teamsClient, clientsConfigurationProperties, meterRegistry, clock);
+    }
+
+    @Test
+    void shouldAnswerMembershipQueriesFromTheSyncedSnapshot() {
+        Team otherTeam =
+                Team.builder().id(UUID_4).name("Other").teamMemberIds(List.of(GIANNI_USER_UUID)).build();
+        when(teamsClient.getTeams())
+                .thenReturn(ResponseEntity.ok(List.of(ORDINARY_CORAL_LYNX_TEAM(), otherTeam)));
+
+        assertThat(teamDirectory.refresh()).isEqualTo(2);
+
+        assertThat(teamDirectory.isMember(ORDINARY_CORAL_LYNX_TEAM_UUID, GIANNI_USER_UUID)).isTrue();
+        assertThat(teamDirectory.isMember(ORDINARY_CORAL_LYNX_TEAM_UUID, UUID_1)).isTrue();
+        assertThat(teamDirectory.isMember(UUID_4, UUID_1)).isFalse();
+        assertThat(teamDirectory.getTeamIds(GIANNI_USER_UUID))
+                .containsExactlyInAnyOrder(ORDINARY_CORAL_LYNX_TEAM_UUID, UUID_4);
+        assertThat(teamDirectory.getTeam(UUID_4)).isEqualTo(otherTeam);
+        assertThat(meterRegistry.get("teams.directory.teams").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldKeepThePreviousSnapshotAndReportLagWhenSyncFails() {
+        when(teamsClient.getTeams()).thenReturn(ResponseEntity.ok(List.of(ORDINARY_CORAL_LYNX_TEAM())));
+        teamDirectory.refresh();
+
+        clock.now = STARTED.plus(Duration.ofMinutes(3));
+        when(teamsClient.getTeams()).thenThrow(new ResourceAccessException("Teams service is down"));
+        assertThatThrownBy(() -> teamDirectory.refresh()).isInstanceOf(ResourceAccessException.class);
+
+        assertThat(teamDirectory.isMember(ORDINARY_CORAL_LYNX_TEAM_UUID, GIANNI_USER_UUID)).isTrue();
+        assertThat(teamDirectory.getSyncedAt()).isEqualTo(STARTED);
+        assertThat(meterRegistry.get("teams.directory.sync.lag").timeGauge().value(TimeUnit.MINUTES))
+                .isEqualTo(3);
+        assertThat(meterRegistry.get("teams.directory.sync").tag("outcome", "failure").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotSyncOnScheduleWhenDisabled() {
+        clientsConfigurationProperties.getTeamsDirectory().setEnabled(false);
+
+        teamDirectory.scheduledRefresh();
+
+        verify(teamsClient, never()).getTeams();
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = STARTED;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.ecore.roles.service.journal;
+
+import com.ecore.roles.model.Membership;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static com.ecore.roles.utils.TestData.DEFAULT_MEMBERSHIP;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MembershipJournalTest {
+
+    private static final Duration SYNC_INTERVAL = Duration.ofMillis(2);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldHandDurableRecordsToTheListenerInJournalOrder() throws IOException {
+        Path path = directory.resolve("membership.journal");
+        List<MembershipJournal.Entry> durable = new ArrayList<>();
+        List<UUID> trackingIds = new ArrayList<>();
+
+        try (MembershipJournal journal = MembershipJournal.open(path, SYNC_INTERVAL, durable::add)) {
+            List<CompletableFuture<MembershipJournal.Entry>> appends = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                UUID trackingId = UUID.randomUUID();
+                trackingIds.add(trackingId);
+                appends.add(journal.append(trackingId, membership()));
+            }
+            CompletableFuture.allOf(appends.toArray(CompletableFuture[]::new)).join();
+
+            assertThat(appends.get(99).join().getEnd()).isEqualTo(100L * MembershipJournal.RECORD_SIZE);
+        }
+
+        assertThat(durable.stream().map(MembershipJournal.Entry::getTrackingId).collect(Collectors.toList()))
+                .isEqualTo(trackingIds);
+        assertThat(Files.size(path)).isEqualTo(100L * MembershipJournal.RECORD_SIZE);
+    }
+
+    @Test
+    void shouldRecoverRecordsPastTheCheckpoint() throws IOException {
+        Path path = directory.resolve("membership.journal");
+        Membership stored = membership();
+        Membership unstored = membership();
+        UUID unstoredTrackingId = UUID.randomUUID();
+
+        try (MembershipJournal journal = MembershipJournal.open(path, SYNC_INTERVAL, entry -> {
+        })) {
+            MembershipJournal.Entry first = journal.append(UUID.randomUUID(), stored).join();
+            journal.append(unstoredTrackingId, unstored).join();
+            journal.checkpoint(first.getEnd()).join();
+        }
+
+        try (MembershipJournal journal = MembershipJournal.open(path, SYNC_INTERVAL, entry -> {
+        })) {
+            assertThat(journal.getRecovered()).hasSize(1);
+            MembershipJournal.Entry recovered = journal.getRecovered().get(0);
+            assertThat(recovered.getTrackingId()).isEqualTo(unstoredTrackingId);
+            assertThat(recovered.getMembership().getRole().getId()).isEqualTo(unstored.getRole().getId());
+            assertThat(recovered.getMembership().getUserId()).isEqualTo(unstored.getUserId());
+            assertThat(recovered.getMembership().getTeamId()).isEqualTo(unstored.getTeamId());
+            assertThat(recovered.getEnd()).isEqualTo(2L * MembershipJournal.RECORD_SIZE);
+        }
+    }
+
+    @Test
+    void shouldDropATornTailAndAppendAfterTheLastIntactRecord() throws IOException {
+        Path path = directory.resolve("membership.journal");
+        try (MembershipJournal journal = MembershipJournal.open(path, SYNC_INTERVAL, entry -> {
+        })) {
+            journal.append(UUID.randomUUID(), membership()).join();
+            journal.append(UUID.randomUUID(), membership()).join();
+        }
+        // Simulate a crash halfway through writing the second record.
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(MembershipJournal.RECORD_SIZE + MembershipJournal.RECORD_SIZE / 2);
+        }
+
+        try (MembershipJournal journal = MembershipJournal.open(path, SYNC_INTERVAL, entry -> {
+        })) {
+            assertThat(journal.getRecovered()).hasSize(1);
+            assertThat(Files.size(path)).isEqualTo(MembershipJournal.RECORD_SIZE);
+
+            MembershipJournal.Entry appended = journal.append(UUID.randomUUID(), membership()).join();
+            assertThat(appended.getEnd()).isEqualTo(2L * MembershipJournal.RECORD_SIZE);
+        }
+    }
+
+    @Test
+    void shouldStopRecoveringAtACorruptRecord() throws IOException {
+        Path path = directory.resolve("membership.journal");
+        try (MembershipJournal journal = MembershipJournal.open(path, SYNC_INTERVAL, entry -> {
+        })) {
+            for (int i = 0; i < 3; i++) {
+                journal.append(UUID.randomUUID(), membership()).join();
+            }
+        }
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[MembershipJournal.RECORD_SIZE + 20] ^= 1;
+        Files.write(path, bytes);
+
+        try (MembershipJournal journal = MembershipJournal.open(path, SYNC_INTERVAL, entry -> {
+        })) {
+            assertThat(journal.getRecovered()).hasSize(1);
+        }
+    }
+
+    private static Membership membership() {
+        Membership membership = DEFAULT_MEMBERSHIP();
+        membership.setId(null);
+        membership.setUserId(UUID.randomUUID());
+        membership.setTeamId(UUID.randomUUID());
+        return membership;
+    }
+}
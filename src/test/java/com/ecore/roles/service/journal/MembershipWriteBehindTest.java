@@ -0,0 +1,161 @@
+package com.ecore.roles.service.journal;
+
+import com.ecore.roles.configuration.MembershipsConfigurationProperties;
+import com.ecore.roles.exception.ResourceExistsException;
+import com.ecore.roles.exception.ResourceNotFoundException;
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.MembershipAssignment;
+import com.ecore.roles.model.MembershipTicket;
+import com.ecore.roles.service.MembershipsService;
+import com.ecore.roles.service.index.RoleCatalogue;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.ecore.roles.utils.TestData.DEFAULT_MEMBERSHIP;
+import static com.ecore.roles.utils.TestData.DEVELOPER_ROLE;
+import static com.ecore.roles.utils.TestData.UUID_1;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MembershipWriteBehindTest {
+
+    @Mock
+    private MembershipsService membershipsService;
+    @Mock
+    private RoleCatalogue roleCatalogue;
+
+    @TempDir
+    Path directory;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MembershipsConfigurationProperties properties = new MembershipsConfigurationProperties();
+    private MembershipWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        properties.getWriteBehind().setJournalPath(directory.resolve("membership.journal"));
+        // Drains are driven by the tests.
+        properties.getWriteBehind().setDrainInterval(Duration.ofHours(1));
+        writeBehind = start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        writeBehind.stop();
+    }
+
+    @Test
+    void shouldAcknowledgeOnceJournaledAndStoreOnDrain() {
+        when(roleCatalogue.findById(DEVELOPER_ROLE().getId())).thenReturn(Optional.of(DEVELOPER_ROLE()));
+        Membership stored = DEFAULT_MEMBERSHIP();
+        when(membershipsService.assignRolesToMemberships(anyList()))
+                .thenReturn(List.of(MembershipAssignment.created(0, stored)));
+
+        MembershipTicket ticket = writeBehind.accept(DEFAULT_MEMBERSHIP()).join();
+
+        assertThat(ticket.getState()).isEqualTo(MembershipTicket.State.PENDING);
+        assertThat(writeBehind.pendingCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("memberships.write.behind.pending").gauge().value()).isEqualTo(1);
+
+        writeBehind.drainSafely();
+
+        MembershipTicket drained = writeBehind.getTicket(ticket.getTrackingId()).orElseThrow();
+        assertThat(drained.getState()).isEqualTo(MembershipTicket.State.CREATED);
+        assertThat(drained.getMembership()).isSameAs(stored);
+        assertThat(writeBehind.pendingCount()).isZero();
+    }
+
+    @Test
+    void shouldReportRejectedAssignments() {
+        when(roleCatalogue.findById(DEVELOPER_ROLE().getId())).thenReturn(Optional.of(DEVELOPER_ROLE()));
+        ResourceExistsException duplicate = new ResourceExistsException(Membership.class);
+        when(membershipsService.assignRolesToMemberships(anyList()))
+                .thenReturn(List.of(MembershipAssignment.failed(0, duplicate)));
+
+        MembershipTicket ticket = writeBehind.accept(DEFAULT_MEMBERSHIP()).join();
+        writeBehind.drainSafely();
+
+        MembershipTicket drained = writeBehind.getTicket(ticket.getTrackingId()).orElseThrow();
+        assertThat(drained.getState()).isEqualTo(MembershipTicket.State.FAILED);
+        assertThat(drained.getError()).isInstanceOf(ResourceExistsException.class);
+    }
+
+    @Test
+    void shouldKeepTheBatchWhenStoringFailsAndReplayItAfterARestart() throws IOException {
+        when(roleCatalogue.findById(DEVELOPER_ROLE().getId())).thenReturn(Optional.of(DEVELOPER_ROLE()));
+        when(membershipsService.assignRolesToMemberships(anyList()))
+                .thenThrow(new IllegalStateException("database unavailable"));
+
+        MembershipTicket ticket = writeBehind.accept(DEFAULT_MEMBERSHIP()).join();
+        writeBehind.drainSafely();
+
+        assertThat(writeBehind.pendingCount()).isEqualTo(1);
+        assertThat(writeBehind.getTicket(ticket.getTrackingId()).orElseThrow().getState())
+                .isEqualTo(MembershipTicket.State.PENDING);
+
+        writeBehind.stop();
+        writeBehind = start();
+
+        assertThat(writeBehind.pendingCount()).isEqualTo(1);
+        assertThat(writeBehind.getTicket(ticket.getTrackingId())).isPresent();
+    }
+
+    @Test
+    void shouldNotReplayStoredAssignmentsAfterARestart() throws IOException {
+        when(roleCatalogue.findById(DEVELOPER_ROLE().getId())).thenReturn(Optional.of(DEVELOPER_ROLE()));
+        when(membershipsService.assignRolesToMemberships(anyList()))
+                .thenReturn(List.of(MembershipAssignment.created(0, DEFAULT_MEMBERSHIP())));
+
+        writeBehind.accept(DEFAULT_MEMBERSHIP()).join();
+        writeBehind.drainSafely();
+        writeBehind.stop();
+        writeBehind = start();
+
+        assertThat(writeBehind.pendingCount()).isZero();
+    }
+
+    @Test
+    void shouldRejectUnknownRolesWithoutJournaling() {
+        Membership membership = DEFAULT_MEMBERSHIP();
+        membership.getRole().setId(UUID_1);
+        when(roleCatalogue.findById(UUID_1)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> writeBehind.accept(membership));
+
+        assertThat(writeBehind.pendingCount()).isZero();
+        writeBehind.drainSafely();
+        verify(membershipsService, never()).assignRolesToMemberships(any());
+    }
+
+    @Test
+    void shouldNotFindUnknownTickets() {
+        assertThat(writeBehind.getTicket(UUID.randomUUID())).isEmpty();
+    }
+
+    private MembershipWriteBehind start() throws IOException {
+        MembershipWriteBehind started =
+                new MembershipWriteBehind(membershipsService, roleCatalogue, properties, meterRegistry);
+        started.start();
+        return started;
+    }
+}
@@ -0,0 +1,83 @@
+package com.ecore.roles.service.warmup;
+
+import com.ecore.roles.configuration.ClientsConfigurationProperties;
+import com.ecore.roles.service.TeamsService;
+import com.ecore.roles.service.UsersService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static com.ecore.roles.utils.TestData.GIANNI_USER;
+import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CacheSnapshotStoreTest {
+
+    private static final Instant NOW = Instant.parse("2022-04-01T10:15:30Z");
+
+    @Mock
+    private UsersService usersService;
+    @Mock
+    private TeamsService teamsService;
+    @TempDir
+    Path directory;
+    private final ClientsConfigurationProperties clientsConfigurationProperties =
+            new ClientsConfigurationProperties();
+
+    @BeforeEach
+    void setUp() {
+        clientsConfigurationProperties.getWarmup().setSnapshotPath(directory.resolve("cache.bin"));
+    }
+
+    @Test
+    void shouldRestoreWhatWasSaved() {
+        when(usersService.getCachedUsers()).thenReturn(List.of(GIANNI_USER()));
+        when(teamsService.getCachedTeams()).thenReturn(List.of(ORDINARY_CORAL_LYNX_TEAM()));
+        store(NOW).save();
+
+        assertThat(store(NOW.plus(Duration.ofMinutes(10))).load()).isTrue();
+
+        verify(usersService).cacheUsers(List.of(GIANNI_USER()));
+        verify(teamsService).cacheTeams(List.of(ORDINARY_CORAL_LYNX_TEAM()));
+    }
+
+    @Test
+    void shouldIgnoreSnapshotsOlderThanTheMaxAge() {
+        when(usersService.getCachedUsers()).thenReturn(List.of(GIANNI_USER()));
+        when(teamsService.getCachedTeams()).thenReturn(List.of());
+        store(NOW).save();
+
+        assertThat(store(NOW.plus(Duration.ofHours(2))).load()).isFalse();
+
+        verify(usersService, never()).cacheUsers(any());
+    }
+
+    @Test
+    void shouldStartColdWithoutASnapshot() {
+        assertThat(store(NOW).load()).isFalse();
+
+        clientsConfigurationProperties.getWarmup().setSnapshotPath(null);
+        store(NOW).save();
+        assertThat(store(NOW).load()).isFalse();
+    }
+
+    private CacheSnapshotStore store(Instant now) {
+        return new CacheSnapshotStore(usersService, teamsService, clientsConfigurationProperties,
+                Clock.fixed(now, ZoneOffset.UTC));
+    }
+}
@@ -12,7 +12,9 @@ import io.restassured.response.ValidatableResponse;
 import io.restassured.specification.RequestSpecification;
 import org.hamcrest.Matchers;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import static io.restassured.RestAssured.given;
 import static io.restassured.RestAssured.when;
@@ -38,6 +40,15 @@ public class RestAssuredHelper {
                 .then());
     }
 
+    public static EcoreValidatableResponse createRole(Role role, String idempotencyKey) {
+        return sendRequest(givenNullableBody(RoleDto.fromModel(role))
+                .header("Idempotency-Key", idempotencyKey)
+                .contentType(JSON)
+                .when()
+                .post("/v1/roles")
+                .then());
+    }
+
     public static EcoreValidatableResponse getRoles() {
         return sendRequest(when()
                 .get("/v1/roles")
@@ -61,6 +72,12 @@ public class RestAssuredHelper {
                 .then());
     }
 
+    public static EcoreValidatableResponse refreshTeamDirectory() {
+        return sendRequest(when()
+                .post("/v1/teams/directory/refresh")
+                .then());
+    }
+
     public static EcoreValidatableResponse createMembership(Membership membership) {
         return sendRequest(givenNullableBody(MembershipDto.fromModel(membership))
                 .contentType(JSON)
@@ -69,6 +86,24 @@ public class RestAssuredHelper {
                 .then());
     }
 
+    public static EcoreValidatableResponse createMembership(Membership membership, String idempotencyKey) {
+        return sendRequest(givenNullableBody(MembershipDto.fromModel(membership))
+                .header("Idempotency-Key", idempotencyKey)
+                .contentType(JSON)
+                .when()
+                .post("/v1/roles/memberships")
+                .then());
+    }
+
+    public static EcoreValidatableResponse createMemberships(List<Membership> memberships) {
+        return sendRequest(given()
+                .body(memberships.stream().map(MembershipDto::fromModel).collect(Collectors.toList()))
+                .contentType(JSON)
+                .when()
+                .post("/v1/roles/memberships/bulk")
+                .then());
+    }
+
     public static EcoreValidatableResponse getMemberships(UUID roleId) {
         return sendRequest(given()
                 .queryParam("roleId", roleId)
@@ -77,6 +112,64 @@ public class RestAssuredHelper {
                 .then());
     }
 
+    public static EcoreValidatableResponse getRolesPage(String cursor, Integer limit) {
+        return sendRequest(givenPage(cursor, limit)
+                .when()
+                .post("/v1/roles/page")
+                .then());
+    }
+
+    public static EcoreValidatableResponse getMembershipsPage(UUID roleId, String cursor, Integer limit) {
+        return sendRequest(givenPage(cursor, limit)
+                .queryParam("roleId", roleId)
+                .when()
+                .post("/v1/roles/memberships/search/page")
+                .then());
+    }
+
+    public static EcoreValidatableResponse getMembershipsPageByUser(UUID userId, String cursor, Integer limit) {
+        return sendRequest(givenPage(cursor, limit)
+                .queryParam("userId", userId)
+                .when()
+                .post("/v1/roles/memberships/search/page")
+                .then());
+    }
+
+    public static EcoreValidatableResponse getMembershipsPageByTeam(UUID teamId, String cursor, Integer limit) {
+        return sendRequest(givenPage(cursor, limit)
+                .queryParam("teamId", teamId)
+                .when()
+                .post("/v1/roles/memberships/search/page")
+                .then());
+    }
+
+    public static EcoreValidatableResponse countMemberships(List<UUID> teamIds) {
+        return sendRequest(given()
+                .queryParam("teamIds", teamIds)
+                .when()
+                .post("/v1/roles/memberships/counts")
+                .then());
+    }
+
+    public static EcoreValidatableResponse streamMemberships(UUID roleId) {
+        return sendRequest(given()
+                .queryParam("roleId", roleId)
+                .when()
+                .post("/v1/roles/memberships/search/stream")
+                .then());
+    }
+
+    private static RequestSpecification givenPage(String cursor, Integer limit) {
+        RequestSpecification requestSpecification = given();
+        if (cursor != null) {
+            requestSpecification = requestSpecification.queryParam("cursor", cursor);
+        }
+        if (limit != null) {
+            requestSpecification = requestSpecification.queryParam("limit", limit);
+        }
+        return requestSpecification;
+    }
+
     private static RequestSpecification givenNullableBody(Object object) {
         RequestSpecification requestSpecification = given();
         if (object != null) {
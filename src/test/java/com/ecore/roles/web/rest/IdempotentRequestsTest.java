@@ -0,0 +1,197 @@
+package com.ecore.roles.web.rest;
+
+import com.ecore.roles.configuration.IdempotencyConfigurationProperties;
+import com.ecore.roles.exception.IdempotencyKeyReusedException;
+import com.ecore.roles.exception.IdempotentRequestInProgressException;
+import com.ecore.roles.exception.ResourceNotFoundException;
+import com.ecore.roles.model.Role;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.ecore.roles.utils.TestData.UUID_1;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdempotentRequestsTest {
+
+    private static final int CALLERS = 32;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final IdempotentRequests idempotentRequests =
+            new IdempotentRequests(new IdempotencyConfigurationProperties(), meterRegistry);
+    private final AtomicInteger writes = new AtomicInteger();
+
+    @Test
+    void shouldRunConcurrentDuplicatesOnceAndShareTheResponse() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<ResponseEntity<String>>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return idempotentRequests.execute("key", "create", "body", () -> {
+                        writes.incrementAndGet();
+                        awaitQuietly(release);
+                        return ResponseEntity.status(200).body("created");
+                    });
+                }));
+            }
+            start.countDown();
+            release.countDown();
+
+            ResponseEntity<String> first = results.get(0).get(30, TimeUnit.SECONDS);
+            assertThat(first.getBody()).isEqualTo("created");
+            for (Future<ResponseEntity<String>> result : results.subList(1, CALLERS)) {
+                assertThat(result.get(30, TimeUnit.SECONDS)).isEqualTo(first).isNotSameAs(first);
+            }
+            assertThat(writes).hasValue(1);
+            assertThat(replayedCount()).isEqualTo(CALLERS - 1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldRunEveryRequestWithoutAKey() {
+        idempotentRequests.execute(null, "create", "body", this::write);
+        idempotentRequests.execute(" ", "create", "body", this::write);
+
+        assertThat(writes).hasValue(2);
+    }
+
+    @Test
+    void shouldScopeKeysByOperation() {
+        idempotentRequests.execute("key", "createRole", "body", this::write);
+        idempotentRequests.execute("key", "assignRoleToMembership", "body", this::write);
+
+        assertThat(writes).hasValue(2);
+    }
+
+    @Test
+    void shouldRejectAKeyReusedWithADifferentBody() {
+        idempotentRequests.execute("key", "create", "body", this::write);
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> idempotentRequests.execute("key", "create", "other body", this::write));
+        assertThat(writes).hasValue(1);
+    }
+
+    @Test
+    void shouldRunAgainAfterAFailedAttempt() {
+        assertThrows(ResourceNotFoundException.class,
+                () -> idempotentRequests.execute("key", "create", "body", () -> {
+                    writes.incrementAndGet();
+                    throw new ResourceNotFoundException(Role.class, UUID_1);
+                }));
+
+        idempotentRequests.execute("key", "create", "body", this::write);
+
+        assertThat(writes).hasValue(2);
+    }
+
+    @Test
+    void shouldReplayACopyThatCallersCannotChange() {
+        ResponseEntity<String> first = idempotentRequests.execute("key", "create", "body",
+                () -> ResponseEntity.status(200).header("Location", "/v1/roles/1").body("created"));
+
+        assertThrows(UnsupportedOperationException.class,
+                () -> first.getHeaders().add("Location", "/v1/roles/2"));
+        ResponseEntity<String> replayed = idempotentRequests.execute("key", "create", "body", this::write);
+
+        assertThat(replayed).isNotSameAs(first).isEqualTo(first);
+        assertThat(replayed.getHeaders().get(HttpHeaders.LOCATION)).containsExactly("/v1/roles/1");
+        assertThat(writes).hasValue(0);
+    }
+
+    @Test
+    void shouldReleaseWaitingDuplicatesAndForgetTheKeyWhenTheWriteThrowsAnError() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ResponseEntity<String>> first = executor.submit(
+                    () -> idempotentRequests.execute("key", "create", "body", () -> {
+                        writes.incrementAndGet();
+                        writing.countDown();
+                        awaitQuietly(release);
+                        throw new LinkageError("broken");
+                    }));
+            assertThat(writing.await(10, TimeUnit.SECONDS)).isTrue();
+            Future<ResponseEntity<String>> duplicate = executor.submit(
+                    () -> idempotentRequests.execute("key", "create", "body", this::write));
+            while (replayedCount() < 1) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            assertThat(assertThrows(ExecutionException.class, () -> first.get(30, TimeUnit.SECONDS)))
+                    .hasCauseInstanceOf(LinkageError.class);
+            assertThat(assertThrows(ExecutionException.class, () -> duplicate.get(30, TimeUnit.SECONDS)))
+                    .hasCauseInstanceOf(LinkageError.class);
+            idempotentRequests.execute("key", "create", "body", this::write);
+            assertThat(writes).hasValue(2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldTellADuplicateToRetryWhenTheFirstRequestTakesTooLong() throws Exception {
+        IdempotencyConfigurationProperties properties = new IdempotencyConfigurationProperties();
+        properties.setReplayTimeout(Duration.ofMillis(50));
+        IdempotentRequests idempotentRequests = new IdempotentRequests(properties, meterRegistry);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ResponseEntity<String>> first = executor.submit(
+                    () -> idempotentRequests.execute("key", "create", "body", () -> {
+                        writing.countDown();
+                        awaitQuietly(release);
+                        return write();
+                    }));
+            assertThat(writing.await(10, TimeUnit.SECONDS)).isTrue();
+
+            assertThrows(IdempotentRequestInProgressException.class,
+                    () -> idempotentRequests.execute("key", "create", "body", this::write));
+            release.countDown();
+            assertThat(first.get(30, TimeUnit.SECONDS).getBody()).isEqualTo("created");
+            assertThat(writes).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private double replayedCount() {
+        return meterRegistry.get("idempotency.requests").tag("result", "replayed").counter().count();
+    }
+
+    private ResponseEntity<String> write() {
+        writes.incrementAndGet();
+        return ResponseEntity.status(200).body("created");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}